@@ -0,0 +1,31 @@
+package com.experian.devicematcher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * User-Agent strings of the benchmark corpus ({@code user-agents.txt}), in file order.
+ */
+public final class UserAgentCorpus {
+    private static final String RESOURCE = "/user-agents.txt";
+
+    private UserAgentCorpus() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static String[] load() {
+        var in = Objects.requireNonNull(UserAgentCorpus.class.getResourceAsStream(RESOURCE), "Missing " + RESOURCE);
+        try (var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toArray(String[]::new);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
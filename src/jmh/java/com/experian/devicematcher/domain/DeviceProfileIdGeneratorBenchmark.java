@@ -0,0 +1,38 @@
+package com.experian.devicematcher.domain;
+
+import com.experian.devicematcher.UserAgentCorpus;
+import com.experian.devicematcher.exceptions.UserAgentParsingException;
+import com.experian.devicematcher.parser.UserAgentCustomParser;
+
+import org.openjdk.jmh.annotations.*;
+
+import ua_parser.Parser;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceProfileIdGeneratorBenchmark {
+    private final DeviceProfileIdGenerator generator = new DeviceProfileUserAgentIdGenerator();
+    private UserAgent[] userAgents;
+    private int next;
+
+    @Setup
+    public void setUp() throws UserAgentParsingException {
+        var parser = new UserAgentCustomParser(new Parser());
+        var corpus = UserAgentCorpus.load();
+        userAgents = new UserAgent[corpus.length];
+        for (int i = 0; i < corpus.length; i++) userAgents[i] = parser.parse(corpus[i]);
+    }
+
+    @Benchmark
+    public String newId() {
+        var userAgent = userAgents[next];
+        next = next + 1 == userAgents.length ? 0 : next + 1;
+        return generator.newId(userAgent);
+    }
+}
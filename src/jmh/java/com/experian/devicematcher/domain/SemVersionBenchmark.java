@@ -0,0 +1,74 @@
+package com.experian.devicematcher.domain;
+
+import com.experian.devicematcher.UserAgentCorpus;
+import com.experian.devicematcher.exceptions.UserAgentParsingException;
+import com.experian.devicematcher.parser.UserAgentCustomParser;
+
+import org.openjdk.jmh.annotations.*;
+
+import ua_parser.Parser;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Versions are the OS and browser versions of the User-Agent corpus, so their shape matches production data.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SemVersionBenchmark {
+    private String[] versionStrings;
+    private SemVersion[] versions;
+    private int next;
+
+    @Setup
+    public void setUp() throws UserAgentParsingException {
+        var parser = new UserAgentCustomParser(new Parser());
+        var parsed = new ArrayList<SemVersion>();
+        for (var userAgentString : UserAgentCorpus.load()) {
+            var userAgent = parser.parse(userAgentString);
+            parsed.add(userAgent.osVersion());
+            parsed.add(userAgent.browserVersion());
+        }
+        versions = parsed.toArray(SemVersion[]::new);
+        versionStrings = parsed.stream().map(SemVersion::toString).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public SemVersion parse() {
+        return SemVersion.parse(versionStrings[nextIndex()]);
+    }
+
+    @Benchmark
+    public SemVersion of() {
+        var version = versions[nextIndex()];
+        return SemVersion.of(version.getMajor(), version.getMinor(), version.getPatch());
+    }
+
+    @Benchmark
+    public String toStringOf() {
+        var version = versions[nextIndex()];
+        return SemVersion.of(version.getMajor(), version.getMinor(), version.getPatch()).toString();
+    }
+
+    @Benchmark
+    public int compareTo() {
+        var i = nextIndex();
+        return versions[i].compareTo(versions[i == 0 ? versions.length - 1 : i - 1]);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return versions[nextIndex()].hashCode();
+    }
+
+    private int nextIndex() {
+        var i = next;
+        next = next + 1 == versions.length ? 0 : next + 1;
+        return i;
+    }
+}
@@ -0,0 +1,129 @@
+package com.experian.devicematcher.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.experian.devicematcher.UserAgentCorpus;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.experian.devicematcher.logging.RequestLog.REQUEST;
+
+/**
+ * Logging cost of one {@code POST /v1/devices} match: the INFO statements of the controller, service, parser and
+ * repository, written to a file through the appender and sampler of logback-spring.xml. The rest of the request
+ * needs Aerospike, so only the logging is measured, from several request threads.
+ * <p>
+ * {@code ASYNC} is the appender of logback-spring.xml for INFO: it never blocks, so when the writer falls behind the
+ * events it drops still count as throughput. {@code ASYNC_BLOCKING} waits for room in the queue instead, and
+ * measures the rate at which every statement is actually written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RequestLoggingBenchmark {
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    public enum AppenderType { SYNC, ASYNC, ASYNC_BLOCKING }
+
+    @Param({"SYNC", "ASYNC", "ASYNC_BLOCKING"})
+    public AppenderType appender;
+
+    @Param({"1.0", "0.01"})
+    public double sampleRate;
+
+    private LoggerContext context;
+    private File file;
+    private Logger controllerLogger;
+    private Logger serviceLogger;
+    private Logger parserLogger;
+    private Logger repositoryLogger;
+    private String[] userAgents;
+
+    @State(Scope.Thread)
+    public static class RequestState {
+        private int next;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        userAgents = UserAgentCorpus.load();
+        file = File.createTempFile("request-logging", ".log");
+
+        // own context, so the WARN root of the benchmark logback.xml does not apply
+        context = new LoggerContext();
+        context.start();
+
+        var sampler = new RequestLogSampler();
+        sampler.setContext(context);
+        sampler.setSampleRate(sampleRate);
+        sampler.start();
+        context.addTurboFilter(sampler);
+
+        var encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        var fileAppender = new FileAppender<ILoggingEvent>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.getAbsolutePath());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> rootAppender = fileAppender;
+        if (appender != AppenderType.SYNC) {
+            var blocking = appender == AppenderType.ASYNC_BLOCKING;
+            var asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            // logback default (queue size / 5) when never blocking, as in logback-spring.xml
+            if (blocking) asyncAppender.setDiscardingThreshold(0);
+            asyncAppender.setNeverBlock(!blocking);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            rootAppender = asyncAppender;
+        }
+
+        var root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(rootAppender);
+
+        controllerLogger = context.getLogger("com.experian.devicematcher.controller.DeviceProfileController");
+        serviceLogger = context.getLogger("com.experian.devicematcher.service.DeviceProfileServiceImpl");
+        parserLogger = context.getLogger("com.experian.devicematcher.parser.UserAgentCustomParser");
+        repositoryLogger = context.getLogger("com.experian.devicematcher.db.vendor.aerospike.DeviceProfileAerospikeRepository");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        file.delete();
+    }
+
+    @Benchmark
+    public void matchDevice(RequestState request) {
+        var userAgent = userAgents[request.next];
+        request.next = request.next + 1 == userAgents.length ? 0 : request.next + 1;
+
+        controllerLogger.info(REQUEST, "Receiving Match Device Request | userAgent={}", userAgent);
+        serviceLogger.info(REQUEST, "Matching Device by User-Agent | userAgent={}", userAgent);
+        parserLogger.info(REQUEST, "Parsing User-Agent string: {}", userAgent);
+        repositoryLogger.info(REQUEST, "Matching device profile on Aerospike | userAgent={}", userAgent);
+        serviceLogger.debug("Device matched | deviceId={} created={}", userAgent.length(), false);
+    }
+}
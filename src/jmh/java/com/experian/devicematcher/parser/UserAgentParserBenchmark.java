@@ -0,0 +1,65 @@
+package com.experian.devicematcher.parser;
+
+import com.experian.devicematcher.UserAgentCorpus;
+import com.experian.devicematcher.domain.UserAgent;
+import com.experian.devicematcher.exceptions.UserAgentParsingException;
+
+import org.openjdk.jmh.annotations.*;
+
+import ua_parser.Parser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the User-Agent corpus round-robin, so every invocation sees a different string in traffic-like proportions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserAgentParserBenchmark {
+    private UserAgentParser customParser;
+    private UserAgentParser prunedParser;
+    private UserAgentParser fastPathParser;
+    private UserAgentParser cachingParser;
+    private String[] userAgents;
+    private int next;
+
+    @Setup
+    public void setUp() throws UserAgentParsingException {
+        userAgents = UserAgentCorpus.load();
+        customParser = new UserAgentCustomParser(new Parser());
+        prunedParser = new UserAgentCustomParser(PrunedCatalogueParser.fromBundledCatalogue());
+        fastPathParser = new UserAgentFastPathParser(customParser);
+        cachingParser = new CachingUserAgentParser(customParser, 10_000, 512);
+        for (var userAgent : userAgents) cachingParser.parse(userAgent);
+    }
+
+    @Benchmark
+    public UserAgent parse() throws UserAgentParsingException {
+        return customParser.parse(nextUserAgent());
+    }
+
+    @Benchmark
+    public UserAgent parsePrunedCatalogue() throws UserAgentParsingException {
+        return prunedParser.parse(nextUserAgent());
+    }
+
+    @Benchmark
+    public UserAgent parseFastPath() throws UserAgentParsingException {
+        return fastPathParser.parse(nextUserAgent());
+    }
+
+    @Benchmark
+    public UserAgent parseCached() throws UserAgentParsingException {
+        return cachingParser.parse(nextUserAgent());
+    }
+
+    private String nextUserAgent() {
+        var userAgent = userAgents[next];
+        next = next + 1 == userAgents.length ? 0 : next + 1;
+        return userAgent;
+    }
+}
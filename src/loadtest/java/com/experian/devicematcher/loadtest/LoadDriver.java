@@ -0,0 +1,224 @@
+package com.experian.devicematcher.loadtest;
+
+import com.experian.devicematcher.loadtest.OperationMix.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays the traffic corpus against the application from concurrent clients, one virtual thread each, and records
+ * the latency of every operation in an HDR histogram per operation.
+ * <p>
+ * Reads, lists and deletes target devices returned by earlier matches, kept in a fixed-size ring that matches
+ * overwrite, so popular devices are also the most read. Until a device has been matched they are sent as matches.
+ * <p>
+ * With a target rate each client sends on a fixed schedule, and latency is measured from the scheduled send time:
+ * a stalled response then counts for the requests that could not be sent meanwhile (no coordinated omission).
+ * Without a rate each client sends its next request as soon as the previous one completes.
+ */
+public final class LoadDriver {
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+
+    private static final String DEVICES_PATH = "/v1/devices";
+    private static final int KNOWN_DEVICES = 1 << 16;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private record KnownDevice(String deviceId, String osName) {
+    }
+
+    private static final class OperationStats {
+        private final Recorder recorder = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder notFound = new LongAdder();
+    }
+
+    /**
+     * Recorded latencies (nanoseconds) and failures of an operation.
+     *
+     * @param notFound 404 responses: reads and deletes of devices deleted meanwhile, lists of an os-name without
+     *                 devices left. They are recorded as successes.
+     * @param errors   other non-2xx responses and I/O failures, not recorded in the histogram
+     */
+    public record OperationResult(Histogram histogram, long errors, long notFound) {
+    }
+
+    public record Result(Map<Operation, OperationResult> operations, Duration elapsed, String lastError) {
+    }
+
+    private final LoadTestOptions options;
+    private final TrafficCorpus corpus;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicReferenceArray<KnownDevice> knownDevices = new AtomicReferenceArray<>(KNOWN_DEVICES);
+    private final AtomicLong knownDevicesWritten = new AtomicLong();
+    private final AtomicReference<String> lastError = new AtomicReference<>();
+
+    public LoadDriver(LoadTestOptions options, TrafficCorpus corpus, String baseUrl) {
+        this.options = options;
+        this.corpus = corpus;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+        for (var operation : Operation.values()) stats.put(operation, new OperationStats());
+    }
+
+    public Result run() throws InterruptedException {
+        var start = System.nanoTime();
+        var recordingStart = start + options.warmUp().toNanos();
+        var end = recordingStart + options.duration().toNanos();
+        // nanoseconds between two sends of a client, 0 without a target rate
+        var interval = options.rate() > 0 ? (long) (options.concurrency() * 1e9 / options.rate()) : 0L;
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            var clients = new ArrayList<Future<?>>();
+            for (int i = 0; i < options.concurrency(); i++) {
+                var random = new SplittableRandom(options.seed() + i);
+                // spread the first sends of the clients over one interval
+                var firstSend = start + (interval * i) / options.concurrency();
+                clients.add(executor.submit(() -> runClient(random, firstSend, interval, end)));
+            }
+
+            logger.info("Warming up | duration={} concurrency={}", options.warmUp(), options.concurrency());
+            sleepUntil(recordingStart);
+            for (var operationStats : stats.values()) {
+                operationStats.recorder.reset();
+                operationStats.errors.reset();
+                operationStats.notFound.reset();
+            }
+            var recordingStarted = System.nanoTime();
+            logger.info("Recording | duration={}", options.duration());
+
+            for (var future : clients) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    logger.error("Client failed | error={}", ex.getCause().getMessage(), ex.getCause());
+                }
+            }
+            var elapsed = Duration.ofNanos(System.nanoTime() - recordingStarted);
+
+            var results = new EnumMap<Operation, OperationResult>(Operation.class);
+            stats.forEach((operation, operationStats) -> results.put(operation, new OperationResult(
+                operationStats.recorder.getIntervalHistogram(),
+                operationStats.errors.sum(),
+                operationStats.notFound.sum()
+            )));
+            return new Result(results, elapsed, lastError.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runClient(SplittableRandom random, long firstSend, long interval, long end) {
+        var scheduled = firstSend;
+        while (true) {
+            if (interval > 0) sleepUntil(scheduled);
+            var sent = System.nanoTime();
+            if (sent >= end) return;
+
+            var operation = options.mix().next(random);
+            var known = operation == Operation.MATCH ? null : knownDevice(random, operation == Operation.DELETE);
+            if (known == null) operation = Operation.MATCH;
+
+            var operationStats = stats.get(operation);
+            try {
+                var status = send(operation, known, random);
+                var latency = System.nanoTime() - (interval > 0 ? scheduled : sent);
+                if (status / 100 == 2 || status == 404) {
+                    operationStats.recorder.recordValue(latency);
+                    if (status == 404) operationStats.notFound.increment();
+                } else {
+                    operationStats.errors.increment();
+                    lastError.set(operation + " returned " + status);
+                }
+            } catch (IOException ex) {
+                operationStats.errors.increment();
+                lastError.set(operation + " failed: " + ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            scheduled += interval;
+        }
+    }
+
+    private int send(Operation operation, KnownDevice known, SplittableRandom random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case MATCH -> match(corpus.next(random));
+            case READ -> client.send(request(DEVICES_PATH + "/" + known.deviceId()).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            case LIST -> client.send(
+                request(DEVICES_PATH + "?pageSize=" + options.pageSize())
+                    .header("os-name", known.osName())
+                    .GET()
+                    .build(),
+                HttpResponse.BodyHandlers.discarding()
+            ).statusCode();
+            case DELETE -> client.send(request(DEVICES_PATH + "/" + known.deviceId()).DELETE().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        };
+    }
+
+    private int match(String userAgent) throws IOException, InterruptedException {
+        var response = client.send(
+            request(DEVICES_PATH).header("User-Agent", userAgent).POST(HttpRequest.BodyPublishers.noBody()).build(),
+            HttpResponse.BodyHandlers.ofString()
+        );
+        if (response.statusCode() == 200) {
+            var device = mapper.readTree(response.body());
+            var slot = (int) (knownDevicesWritten.getAndIncrement() & (KNOWN_DEVICES - 1));
+            knownDevices.set(slot, new KnownDevice(device.path("deviceId").asText(), device.path("osName").asText()));
+        }
+        return response.statusCode();
+    }
+
+    /**
+     * A device returned by an earlier match, removed from the ring when taken for a delete. Null if none was found.
+     */
+    private KnownDevice knownDevice(SplittableRandom random, boolean take) {
+        var written = knownDevicesWritten.get();
+        if (written == 0) return null;
+
+        var slot = random.nextInt((int) Math.min(written, KNOWN_DEVICES));
+        var device = knownDevices.get(slot);
+        if (device != null && take && !knownDevices.compareAndSet(slot, device, null)) return null;
+        return device;
+    }
+
+    private HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) return;
+        }
+    }
+}
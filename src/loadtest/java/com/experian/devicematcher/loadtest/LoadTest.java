@@ -0,0 +1,35 @@
+package com.experian.devicematcher.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * End-to-end load test of the device API: replays a Zipf-distributed User-Agent corpus with a weighted mix of
+ * matches, reads, os-name lists and deletes, then writes an HDR histogram report.
+ * <pre>
+ * ./gradlew loadTest -PloadTestArgs="--target=aerospike --duration=2m --mix=match=70,read=25,list=5"
+ * </pre>
+ * See {@link LoadTestOptions} for the options.
+ */
+public final class LoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+        var corpus = TrafficCorpus.load(options.corpusSize(), options.zipf(), options.seed());
+        logger.info("Corpus loaded | userAgents={} zipf={}", corpus.size(), options.zipf());
+
+        LoadDriver.Result result;
+        try (var target = TargetApplication.start(options.target())) {
+            logger.info("Starting load test | baseUrl={} mix={}", target.baseUrl(), options.mix());
+            result = new LoadDriver(options, corpus, target.baseUrl()).run();
+        }
+
+        LoadTestReport.write(options, result, options.reportDir());
+        logger.info("Report written | dir={}", options.reportDir().toAbsolutePath());
+    }
+}
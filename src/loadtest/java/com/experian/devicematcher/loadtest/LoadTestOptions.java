@@ -0,0 +1,93 @@
+package com.experian.devicematcher.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options of a load test run, given as {@code --name=value} arguments. Every option has a default.
+ *
+ * @param target      {@code memory} (in-process application on the in-memory repository), {@code aerospike}
+ *                    (in-process application on a Testcontainers Aerospike) or the base URL of a running application
+ * @param mix         weighted operation mix, see {@link OperationMix}
+ * @param concurrency number of concurrent clients
+ * @param rate        target rate in operations per second over all clients, 0 to send as fast as responses come
+ * @param warmUp      time run before recording, to warm up the JIT, caches and connection pools
+ * @param duration    recorded time
+ * @param corpusSize  number of distinct User-Agent strings
+ * @param zipf        exponent of the Zipf distribution of the User-Agents, 0 for uniform
+ * @param pageSize    page size of the list operation
+ * @param seed        seed of the corpus and of the clients, the same seed replays the same traffic
+ * @param reportDir   directory of the report
+ */
+public record LoadTestOptions(
+    String target,
+    OperationMix mix,
+    int concurrency,
+    int rate,
+    Duration warmUp,
+    Duration duration,
+    int corpusSize,
+    double zipf,
+    int pageSize,
+    long seed,
+    Path reportDir
+) {
+    private static final Set<String> KNOWN = Set.of(
+        "target", "mix", "concurrency", "rate", "warm-up", "duration", "corpus-size", "zipf", "page-size", "seed", "report-dir"
+    );
+
+    public static LoadTestOptions parse(String[] args) {
+        var values = new HashMap<String, String>();
+        for (var arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Invalid argument, expected --name=value: " + arg);
+            var separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        var options = new LoadTestOptions(
+            values.getOrDefault("target", "memory"),
+            OperationMix.parse(values.getOrDefault("mix", "match=80,read=15,list=4,delete=1")),
+            Integer.parseInt(values.getOrDefault("concurrency", "64")),
+            Integer.parseInt(values.getOrDefault("rate", "0")),
+            duration(values.getOrDefault("warm-up", "10s")),
+            duration(values.getOrDefault("duration", "60s")),
+            Integer.parseInt(values.getOrDefault("corpus-size", "10000")),
+            Double.parseDouble(values.getOrDefault("zipf", "1.0")),
+            Integer.parseInt(values.getOrDefault("page-size", "100")),
+            Long.parseLong(values.getOrDefault("seed", "42")),
+            Path.of(values.getOrDefault("report-dir", "build/reports/loadtest"))
+        );
+
+        values.keySet().removeAll(KNOWN);
+        if (!values.isEmpty()) throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        if (options.concurrency < 1) throw new IllegalArgumentException("concurrency must be positive: " + options.concurrency);
+        return options;
+    }
+
+    /**
+     * Parses {@code 90s}, {@code 2m} or {@code 1h}.
+     */
+    private static Duration duration(String value) {
+        return Duration.parse("PT" + value.strip().toUpperCase(Locale.ROOT));
+    }
+
+    Map<String, Object> describe() {
+        var description = new LinkedHashMap<String, Object>();
+        description.put("target", target);
+        description.put("mix", mix);
+        description.put("concurrency", concurrency);
+        description.put("rate", rate == 0 ? "unbounded" : rate + "/s");
+        description.put("warm-up", warmUp);
+        description.put("duration", duration);
+        description.put("corpus-size", corpusSize);
+        description.put("zipf", zipf);
+        description.put("page-size", pageSize);
+        description.put("seed", seed);
+        return description;
+    }
+}
@@ -0,0 +1,88 @@
+package com.experian.devicematcher.loadtest;
+
+import com.experian.devicematcher.loadtest.LoadDriver.OperationResult;
+import com.experian.devicematcher.loadtest.LoadDriver.Result;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Report of a load test run, written to the report directory:
+ * <ul>
+ *   <li>{@code summary.txt}: the options, then throughput, errors and latency percentiles per operation, also
+ *   printed to the console</li>
+ *   <li>{@code <operation>.hgrm} and {@code all.hgrm}: the full percentile distributions in milliseconds, in the
+ *   HdrHistogram text format that the HdrHistogram plotter reads</li>
+ * </ul>
+ */
+public final class LoadTestReport {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private LoadTestReport() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static void write(LoadTestOptions options, Result result, Path dir) throws IOException {
+        Files.createDirectories(dir);
+
+        var all = new Histogram(3);
+        for (var entry : result.operations().entrySet()) {
+            var histogram = entry.getValue().histogram();
+            if (histogram.getTotalCount() == 0) continue;
+            all.add(histogram);
+            writeDistribution(histogram, dir.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm"));
+        }
+        writeDistribution(all, dir.resolve("all.hgrm"));
+
+        try (var summary = new PrintStream(Files.newOutputStream(dir.resolve("summary.txt")), true, StandardCharsets.UTF_8)) {
+            writeSummary(options, result, summary);
+        }
+        writeSummary(options, result, System.out);
+    }
+
+    private static void writeSummary(LoadTestOptions options, Result result, PrintStream out) {
+        options.describe().forEach((name, value) -> out.printf(Locale.ROOT, "%-12s %s%n", name, value));
+        out.println();
+
+        out.printf(Locale.ROOT, "%-8s %10s %10s %8s %8s %9s %9s %9s %9s %9s%n",
+            "op", "count", "ops/s", "errors", "404", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        var seconds = result.elapsed().toNanos() / 1e9;
+        var all = new Histogram(3);
+        long errors = 0;
+        long notFound = 0;
+        for (var entry : result.operations().entrySet()) {
+            var operation = entry.getValue();
+            all.add(operation.histogram());
+            errors += operation.errors();
+            notFound += operation.notFound();
+            writeRow(out, entry.getKey().name().toLowerCase(Locale.ROOT), operation, seconds);
+        }
+        writeRow(out, "all", new OperationResult(all, errors, notFound), seconds);
+
+        if (result.lastError() != null) {
+            out.println();
+            out.println("last error: " + result.lastError());
+        }
+    }
+
+    private static void writeRow(PrintStream out, String name, OperationResult operation, double seconds) {
+        var histogram = operation.histogram();
+        out.printf(Locale.ROOT, "%-8s %10d %10.1f %8d %8d", name, histogram.getTotalCount(), histogram.getTotalCount() / seconds, operation.errors(), operation.notFound());
+        for (var percentile : PERCENTILES) {
+            out.printf(Locale.ROOT, " %9.3f", histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+        }
+        out.printf(Locale.ROOT, " %9.3f%n", histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    private static void writeDistribution(Histogram histogram, Path path) throws IOException {
+        try (var out = new PrintStream(Files.newOutputStream(path), true, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+}
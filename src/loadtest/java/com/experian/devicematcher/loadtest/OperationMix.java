@@ -0,0 +1,71 @@
+package com.experian.devicematcher.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted mix of the operations of the load test, e.g. {@code match=80,read=15,list=4,delete=1}.
+ */
+public final class OperationMix {
+
+    public enum Operation {
+        /** {@code POST /v1/devices} with a User-Agent of the corpus */
+        MATCH,
+        /** {@code GET /v1/devices/{id}} of a matched device */
+        READ,
+        /** {@code GET /v1/devices} of the os-name of a matched device, one page */
+        LIST,
+        /** {@code DELETE /v1/devices/{id}} of a matched device */
+        DELETE
+    }
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = Map.copyOf(weights);
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public static OperationMix parse(String mix) {
+        var weights = new EnumMap<Operation, Integer>(Operation.class);
+        for (var entry : mix.split(",")) {
+            var parts = entry.split("=", 2);
+            if (parts.length != 2) throw new IllegalArgumentException("Invalid mix entry, expected operation=weight: " + entry);
+
+            var operation = Operation.valueOf(parts[0].strip().toUpperCase(Locale.ROOT));
+            var weight = Integer.parseInt(parts[1].strip());
+            if (weight < 0) throw new IllegalArgumentException("Negative weight in mix: " + entry);
+            if (weight > 0) weights.put(operation, weight);
+        }
+        if (weights.isEmpty()) throw new IllegalArgumentException("Empty mix: " + mix);
+        return new OperationMix(weights);
+    }
+
+    public Operation next(RandomGenerator random) {
+        var draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) return operations[i];
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (var operation : operations) {
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(operation.name().toLowerCase(Locale.ROOT)).append('=').append(weights.get(operation));
+        }
+        return sb.toString();
+    }
+}
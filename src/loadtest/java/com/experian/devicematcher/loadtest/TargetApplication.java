@@ -0,0 +1,99 @@
+package com.experian.devicematcher.loadtest;
+
+import com.experian.devicematcher.DeviceMatcherApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application under load: started in this JVM, on the in-memory repository or on an Aerospike container, or an
+ * already running one given by its base URL.
+ * <p>
+ * The in-process targets share the CPU with the load generator, which caps the measured throughput; use a URL target
+ * on another host to measure the application alone.
+ */
+public final class TargetApplication implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TargetApplication.class);
+
+    private static final int AEROSPIKE_PORT = 3000;
+    private static final String AEROSPIKE_NAMESPACE = "devicematcher";
+    private static final String AEROSPIKE_CONF = "config/aerospike.conf";
+
+    private final String baseUrl;
+    private final ConfigurableApplicationContext context;
+    private final GenericContainer<?> aerospikeContainer;
+
+    private TargetApplication(String baseUrl, ConfigurableApplicationContext context, GenericContainer<?> aerospikeContainer) {
+        this.baseUrl = baseUrl;
+        this.context = context;
+        this.aerospikeContainer = aerospikeContainer;
+    }
+
+    public static TargetApplication start(String target) {
+        return switch (target) {
+            case "memory" -> startInProcess(List.of("memory"), List.of(), null);
+            case "aerospike" -> startOnAerospike();
+            default -> {
+                if (!target.startsWith("http://") && !target.startsWith("https://")) {
+                    throw new IllegalArgumentException("Invalid target, expected memory, aerospike or a URL: " + target);
+                }
+                yield new TargetApplication(target.endsWith("/") ? target.substring(0, target.length() - 1) : target, null, null);
+            }
+        };
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    private static TargetApplication startOnAerospike() {
+        logger.info("Starting Aerospike container | conf={} namespace={}", AEROSPIKE_CONF, AEROSPIKE_NAMESPACE);
+        GenericContainer<?> container = new GenericContainer<>(DockerImageName.parse("aerospike/aerospike-server:latest"))
+            .withExposedPorts(AEROSPIKE_PORT)
+            .withCopyFileToContainer(MountableFile.forHostPath(AEROSPIKE_CONF), "/opt/aerospike/etc/aerospike.conf")
+            .withEnv("NAMESPACE", AEROSPIKE_NAMESPACE);
+        container.start();
+
+        try {
+            var properties = List.of(
+                "aerospike.host=" + container.getHost(),
+                "aerospike.port=" + container.getMappedPort(AEROSPIKE_PORT),
+                "aerospike.namespace=" + AEROSPIKE_NAMESPACE,
+                "aerospike.config.create-indexes=true"
+            );
+            return startInProcess(List.of(), properties, container);
+        } catch (RuntimeException ex) {
+            container.stop();
+            throw ex;
+        }
+    }
+
+    private static TargetApplication startInProcess(List<String> profiles, List<String> properties, GenericContainer<?> container) {
+        logger.info("Starting application in process | profiles={}", profiles);
+        var allProperties = new ArrayList<>(properties);
+        allProperties.add("server.port=0");
+
+        var context = new SpringApplicationBuilder(DeviceMatcherApplication.class)
+            .profiles(profiles.toArray(String[]::new))
+            .properties(allProperties.toArray(String[]::new))
+            .run();
+
+        var port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        logger.info("Application started | port={}", port);
+        return new TargetApplication("http://localhost:" + port, context, container);
+    }
+
+    @Override
+    public void close() {
+        if (context != null) context.close();
+        if (aerospikeContainer != null) aerospikeContainer.stop();
+    }
+}
@@ -0,0 +1,75 @@
+package com.experian.devicematcher.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.regex.Pattern;
+
+/**
+ * User-Agent strings replayed by the load test, drawn with a Zipf distribution.
+ * <p>
+ * The corpus starts with the distinct lines of {@code user-agents.txt} (the benchmark corpus), in file order, so the
+ * most requested User-Agents are real ones. It is then padded up to the requested size with variants of those lines
+ * that only differ in the patch number of their three-part versions, the long tail of minor browser and OS builds
+ * seen in production traffic. Each variant parses to a tuple of its own, hence to a device of its own.
+ * The variants depend only on the seed, so runs with the same options replay the same traffic.
+ */
+public final class TrafficCorpus {
+    private static final String RESOURCE = "/user-agents.txt";
+    private static final Pattern THREE_PART_VERSION = Pattern.compile("(\\d+\\.\\d+\\.)(\\d+)");
+    private static final int MAX_PATCH = 10_000;
+
+    private final List<String> userAgents;
+    private final ZipfSampler sampler;
+
+    private TrafficCorpus(List<String> userAgents, double exponent) {
+        this.userAgents = List.copyOf(userAgents);
+        this.sampler = new ZipfSampler(this.userAgents.size(), exponent);
+    }
+
+    public static TrafficCorpus load(int size, double exponent, long seed) {
+        var distinct = new LinkedHashSet<>(readResource());
+        var base = List.copyOf(distinct);
+        var variable = base.stream().filter(ua -> THREE_PART_VERSION.matcher(ua).find()).toList();
+
+        var random = new SplittableRandom(seed);
+        // bounded, in case the variable lines cannot produce enough distinct variants
+        for (long attempts = 0; distinct.size() < size && !variable.isEmpty() && attempts < 100L * size; attempts++) {
+            distinct.add(variant(variable.get(random.nextInt(variable.size())), random));
+        }
+        return new TrafficCorpus(new ArrayList<>(distinct), exponent);
+    }
+
+    public int size() {
+        return userAgents.size();
+    }
+
+    public String next(RandomGenerator random) {
+        return userAgents.get(sampler.sample(random));
+    }
+
+    private static String variant(String userAgent, SplittableRandom random) {
+        return THREE_PART_VERSION.matcher(userAgent)
+            .replaceAll(match -> match.group(1) + random.nextInt(MAX_PATCH));
+    }
+
+    private static List<String> readResource() {
+        var in = Objects.requireNonNull(TrafficCorpus.class.getResourceAsStream(RESOURCE), "Missing " + RESOURCE);
+        try (var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
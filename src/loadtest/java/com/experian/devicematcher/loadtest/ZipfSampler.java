@@ -0,0 +1,35 @@
+package com.experian.devicematcher.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks 0..n-1 with Zipf's law: rank k is drawn with a probability proportional to 1 / (k + 1)^exponent.
+ * The cumulative distribution is computed once, so a sample is a binary search.
+ */
+public final class ZipfSampler {
+    private final double[] cdf;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) throw new IllegalArgumentException("n must be positive: " + n);
+        if (exponent < 0) throw new IllegalArgumentException("exponent must not be negative: " + exponent);
+
+        this.cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+
+    public int sample(RandomGenerator random) {
+        var rank = Arrays.binarySearch(cdf, random.nextDouble());
+        // not found: -(insertion point) - 1, the first rank whose cumulative probability is above the draw
+        return rank >= 0 ? rank : Math.min(-rank - 1, cdf.length - 1);
+    }
+}
@@ -1,23 +1,35 @@
 package com.experian.devicematcher.config;
 
 import com.aerospike.client.AerospikeClient;
+import com.aerospike.client.Host;
 import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.async.EventLoops;
+import com.aerospike.client.async.EventPolicy;
+import com.aerospike.client.async.NioEventLoops;
+import com.aerospike.client.policy.ClientPolicy;
+import com.aerospike.client.policy.BatchPolicy;
 import com.aerospike.client.policy.Policy;
 import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.policy.Replica;
 import com.aerospike.client.policy.WritePolicy;
-import com.aerospike.client.query.IndexType;
+import com.experian.devicematcher.db.vendor.aerospike.AerospikeWarmUp;
+import com.experian.devicematcher.db.vendor.aerospike.DeviceProfileIndexes;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
-import java.util.Map;
+import java.util.Arrays;
 
 @Configuration
+@Profile("!memory")
 public class AerospikeConfig {
     private static final Logger logger = LoggerFactory.getLogger(AerospikeConfig.class);
 
@@ -27,6 +39,9 @@ public class AerospikeConfig {
     @Value("${aerospike.port}")
     private Integer port;
 
+    @Value("${aerospike.hosts:}")
+    private String seedHosts;
+
     @Value("${aerospike.namespace}")
     private String namespace;
 
@@ -39,23 +54,116 @@ public class AerospikeConfig {
     @Value("${aerospike.policy.timeout}")
     private Integer timeout;
 
+    @Value("${aerospike.policy.read.socket-timeout:${aerospike.policy.timeout}}")
+    private int readSocketTimeout;
+
+    @Value("${aerospike.policy.read.total-timeout:${aerospike.policy.timeout}}")
+    private int readTotalTimeout;
+
+    @Value("${aerospike.policy.write.socket-timeout:${aerospike.policy.timeout}}")
+    private int writeSocketTimeout;
+
+    @Value("${aerospike.policy.write.total-timeout:${aerospike.policy.timeout}}")
+    private int writeTotalTimeout;
+
+    @Value("${aerospike.policy.read.max-retries:2}")
+    private int readMaxRetries;
+
+    @Value("${aerospike.policy.read.sleep-between-retries:0}")
+    private int readSleepBetweenRetries;
+
+    @Value("${aerospike.policy.write.max-retries:0}")
+    private int writeMaxRetries;
+
+    @Value("${aerospike.policy.write.sleep-between-retries:0}")
+    private int writeSleepBetweenRetries;
+
+    @Value("${aerospike.policy.read.replica:}")
+    private Replica readReplica;
+
+    @Value("${aerospike.policy.by-id.socket-timeout:${aerospike.policy.timeout}}")
+    private int byIdSocketTimeout;
+
+    @Value("${aerospike.policy.by-id.total-timeout:${aerospike.policy.timeout}}")
+    private int byIdTotalTimeout;
+
+    @Value("${aerospike.policy.by-id.max-retries:2}")
+    private int byIdMaxRetries;
+
+    @Value("${aerospike.policy.by-id.replica:}")
+    private Replica byIdReplica;
+
+    @Value("${aerospike.client.min-conns-per-node:0}")
+    private int minConnsPerNode;
+
+    @Value("${aerospike.client.max-conns-per-node:100}")
+    private int maxConnsPerNode;
+
+    @Value("${aerospike.client.conn-pools-per-node:1}")
+    private int connPoolsPerNode;
+
+    @Value("${aerospike.client.tend-interval:1000}")
+    private int tendInterval;
+
+    @Value("${aerospike.client.rack-aware:false}")
+    private boolean rackAware;
+
+    @Value("${aerospike.client.rack-id:0}")
+    private int rackId;
+
+    @Value("${aerospike.client.warm-up.conns-per-node:${aerospike.client.min-conns-per-node:0}}")
+    private int warmUpConnsPerNode;
+
     @Value("${aerospike.config.create-indexes:false}")
     private boolean createIndexes;
 
-    @Value("${aerospike.config.index.osname}")
-    private String osNameIndex;
+    @Value("${aerospike.async.event-loops:0}")
+    private int eventLoopsSize;
+
+    @Value("${aerospike.async.max-commands-in-process:0}")
+    private int maxCommandsInProcess;
+
+    @Value("${aerospike.async.max-commands-in-queue:0}")
+    private int maxCommandsInQueue;
 
-    @Value("${aerospike.config.index.osname.bin}")
-    private String osNameIndexBin;
+    @Value("${aerospike.async.min-conns-per-node:0}")
+    private int asyncMinConnsPerNode;
 
     @Bean
     public IAerospikeClient aerospikeClient(
-        @Autowired @Qualifier("aerospikeDefaultPolicy") Policy aerospikeDefaultPolicy
+        @Autowired @Qualifier("aerospikeDefaultPolicy") Policy aerospikeDefaultPolicy,
+        ObjectProvider<EventLoops> aerospikeEventLoops,
+        DeviceProfileIndexes indexes
     ) {
         try {
-            logger.info("Configuring Aerospike client | hostname={} port={}", hostname, port);
-            var client = new AerospikeClient(hostname, port);
-            if (createIndexes) createIndex(client, namespace, setName);
+            var clientPolicy = new ClientPolicy();
+            clientPolicy.minConnsPerNode = minConnsPerNode;
+            clientPolicy.maxConnsPerNode = maxConnsPerNode;
+            clientPolicy.connPoolsPerNode = connPoolsPerNode;
+            clientPolicy.tendInterval = tendInterval;
+            clientPolicy.rackAware = rackAware;
+            clientPolicy.rackId = rackId;
+            // commands issued with a null policy behave like the ones of the repositories
+            clientPolicy.readPolicyDefault = aerospikeDefaultPolicy;
+            clientPolicy.writePolicyDefault = aerospikeWritePolicy();
+            clientPolicy.queryPolicyDefault = aerospikeQueryPolicy();
+            clientPolicy.batchPolicyDefault = aerospikeBatchPolicy();
+
+            var eventLoops = aerospikeEventLoops.getIfAvailable();
+            if (eventLoops != null) {
+                clientPolicy.eventLoops = eventLoops;
+                clientPolicy.asyncMinConnsPerNode = asyncMinConnsPerNode;
+                // every event loop may hold maxCommandsInProcess connections to each node
+                clientPolicy.asyncMaxConnsPerNode = Math.max(clientPolicy.asyncMaxConnsPerNode, eventLoops.getSize() * maxCommandsInProcess);
+            }
+
+            var hosts = seedHosts.isBlank() ? new Host[] { new Host(hostname, port) } : Host.parseHosts(seedHosts, port);
+            logger.info("Configuring Aerospike client | hosts={} minConnsPerNode={} maxConnsPerNode={} connPoolsPerNode={} tendInterval={} rackAware={} rackId={} eventLoops={}",
+                Arrays.toString(hosts), minConnsPerNode, maxConnsPerNode, connPoolsPerNode, tendInterval, rackAware, rackId, eventLoops == null ? 0 : eventLoops.getSize());
+            var client = new AerospikeClient(clientPolicy, hosts);
+            if (createIndexes) createIndexes(client, namespace, setName, indexes);
+            // the client bean is created before the web server starts, so the app is not ready until this returns
+            AerospikeWarmUp.warmUp(client, Math.min(warmUpConnsPerNode, maxConnsPerNode), readSocketTimeout);
             return client;
         } catch (Exception ex) {
             logger.error("Error creating Aerospike client: {}", ex.getMessage(), ex);
@@ -63,15 +171,27 @@ public class AerospikeConfig {
         }
     }
 
-    private Map<String, String> binsByIndex() {
-        return Map.of(osNameIndex, osNameIndexBin);
+    /**
+     * Event loops of the async client API, only created when the async repository is enabled.
+     * A maxCommandsInProcess of 0 leaves the number of concurrent commands per event loop unbounded.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "aerospike.async.enabled", havingValue = "true")
+    public EventLoops aerospikeEventLoops() {
+        var size = eventLoopsSize > 0 ? eventLoopsSize : Runtime.getRuntime().availableProcessors();
+        logger.info("Configuring Aerospike event loops | size={} maxCommandsInProcess={} maxCommandsInQueue={}", size, maxCommandsInProcess, maxCommandsInQueue);
+
+        var eventPolicy = new EventPolicy();
+        eventPolicy.maxCommandsInProcess = maxCommandsInProcess;
+        eventPolicy.maxCommandsInQueue = maxCommandsInQueue;
+        return new NioEventLoops(eventPolicy, size);
     }
 
-    private void createIndex(AerospikeClient client, String namespace, String setName) {
+    private void createIndexes(AerospikeClient client, String namespace, String setName, DeviceProfileIndexes indexes) {
         try {
-            binsByIndex().forEach((indexName, binName) -> {
-                logger.info("Creating Aerospike Index | namespace={} setName={} indexName={} binName={}", namespace, setName, indexName, binName);
-                client.createIndex(null, namespace, setName, indexName, binName, IndexType.STRING).waitTillComplete();
+            indexes.all().forEach(index -> {
+                logger.info("Creating Aerospike Index | namespace={} setName={} indexName={} binName={} type={}", namespace, setName, index.name(), index.binName(), index.type());
+                client.createIndex(null, namespace, setName, index.name(), index.binName(), index.type()).waitTillComplete();
             });
         } catch (Exception ex) {
             logger.error("Error creating Aerospike index: {}", ex.getMessage(), ex);
@@ -79,28 +199,90 @@ public class AerospikeConfig {
         }
     }
 
+    /**
+     * Reads go to the replica of the local rack when rack awareness is on, unless a replica policy is configured.
+     */
+    private Replica readReplica() {
+        return replicaOrDefault(readReplica);
+    }
+
+    private Replica replicaOrDefault(Replica replica) {
+        if (replica != null) return replica;
+        return rackAware ? Replica.PREFER_RACK : Replica.SEQUENCE;
+    }
+
+    private <P extends Policy> P readPolicy(P policy) {
+        policy.socketTimeout = readSocketTimeout;
+        policy.totalTimeout = readTotalTimeout;
+        policy.maxRetries = readMaxRetries;
+        policy.sleepBetweenRetries = readSleepBetweenRetries;
+        policy.replica = readReplica();
+        return policy;
+    }
+
     @Bean(name = "aerospikeDefaultPolicy")
     public Policy aerospikeDefaultPolicy() {
-        logger.info("Configuring Aerospike Default Policy | timeout={}", timeout);
-        Policy policy = new Policy();
-        policy.setTimeout(timeout); // Set timeout to 1 second
+        logger.info("Configuring Aerospike Default Policy | socketTimeout={} totalTimeout={} maxRetries={} replica={}", readSocketTimeout, readTotalTimeout, readMaxRetries, readReplica());
+        return readPolicy(new Policy());
+    }
+
+    /**
+     * Budget of the point reads by deviceId: a socket timeout well under the total timeout makes a read stuck on a
+     * slow node retry on the next replica (SEQUENCE and PREFER_RACK both move on at every retry).
+     */
+    @Bean(name = "aerospikeByIdPolicy")
+    public Policy aerospikeByIdPolicy() {
+        var replica = replicaOrDefault(byIdReplica);
+        logger.info("Configuring Aerospike By Id Policy | socketTimeout={} totalTimeout={} maxRetries={} replica={}", byIdSocketTimeout, byIdTotalTimeout, byIdMaxRetries, replica);
+        var policy = readPolicy(new Policy());
+        policy.socketTimeout = byIdSocketTimeout;
+        policy.totalTimeout = byIdTotalTimeout;
+        policy.maxRetries = byIdMaxRetries;
+        policy.replica = replica;
         return policy;
     }
 
     @Bean(name = "aerospikeQueryPolicy")
     public QueryPolicy aerospikeQueryPolicy() {
-        logger.info("Configuring Aerospike Query Policy | timeout={} maxRecords={}", timeout, maxRecords);
-        QueryPolicy queryPolicy = new QueryPolicy();
-        queryPolicy.setTimeout(timeout);
+        logger.info("Configuring Aerospike Query Policy | socketTimeout={} totalTimeout={} maxRetries={} replica={} maxRecords={}", readSocketTimeout, readTotalTimeout, readMaxRetries, readReplica(), maxRecords);
+        QueryPolicy queryPolicy = readPolicy(new QueryPolicy());
         queryPolicy.setMaxRecords(maxRecords);
         return queryPolicy;
     }
 
     @Bean(name = "aerospikeWritePolicy")
     public WritePolicy aerospikeWritePolicy() {
-        logger.info("Configuring Aerospike Write Policy | timeout={}", timeout);
+        logger.info("Configuring Aerospike Write Policy | socketTimeout={} totalTimeout={} maxRetries={}", writeSocketTimeout, writeTotalTimeout, writeMaxRetries);
         WritePolicy writePolicy = new WritePolicy();
-        writePolicy.setTimeout(timeout);
+        writePolicy.socketTimeout = writeSocketTimeout;
+        writePolicy.totalTimeout = writeTotalTimeout;
+        // hit count increments are not idempotent, a retry after a timeout may count a hit twice
+        writePolicy.maxRetries = writeMaxRetries;
+        writePolicy.sleepBetweenRetries = writeSleepBetweenRetries;
         return writePolicy;
     }
+
+    /**
+     * Batch reads (device records, id mappings, hit count shards) take the read timeouts and retries.
+     */
+    @Bean(name = "aerospikeBatchPolicy")
+    public BatchPolicy aerospikeBatchPolicy() {
+        logger.info("Configuring Aerospike Batch Policy | socketTimeout={} totalTimeout={} maxRetries={} replica={}", readSocketTimeout, readTotalTimeout, readMaxRetries, readReplica());
+        return readPolicy(new BatchPolicy());
+    }
+
+    /**
+     * Batches that write (hit count increments, batch match upserts, imports, shard deletes) take the write timeouts
+     * and retries: like single writes, a batch increment retried after a timeout may count its hits twice.
+     */
+    @Bean(name = "aerospikeBatchWritePolicy")
+    public BatchPolicy aerospikeBatchWritePolicy() {
+        logger.info("Configuring Aerospike Batch Write Policy | socketTimeout={} totalTimeout={} maxRetries={}", writeSocketTimeout, writeTotalTimeout, writeMaxRetries);
+        BatchPolicy batchPolicy = new BatchPolicy();
+        batchPolicy.socketTimeout = writeSocketTimeout;
+        batchPolicy.totalTimeout = writeTotalTimeout;
+        batchPolicy.maxRetries = writeMaxRetries;
+        batchPolicy.sleepBetweenRetries = writeSleepBetweenRetries;
+        return batchPolicy;
+    }
 }
@@ -0,0 +1,62 @@
+package com.experian.devicematcher.config;
+
+import com.experian.devicematcher.db.vendor.aerospike.AerospikeErrorCodes;
+import com.experian.devicematcher.db.vendor.aerospike.HedgedReader;
+import com.experian.devicematcher.repository.CachingDeviceProfileRepository;
+import com.experian.devicematcher.repository.DeviceProfileRepository;
+import com.experian.devicematcher.repository.MeteredDeviceProfileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+public class RepositoryConfig {
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryConfig.class);
+
+    @Value("${devicematcher.near-cache.enabled:false}")
+    private boolean nearCacheEnabled;
+
+    @Value("${devicematcher.near-cache.ttl:5s}")
+    private Duration nearCacheTtl;
+
+    @Value("${devicematcher.near-cache.max-size:10000}")
+    private long nearCacheMaxSize;
+
+    @Value("${devicematcher.metrics.enabled:false}")
+    private boolean metricsEnabled;
+
+    /**
+     * Device profile repository used by the application: the database repository wrapped with the optional
+     * decorators enabled by properties. The database repository is the {@code "vendor"} qualified one, Aerospike
+     * or, with the {@code memory} profile, the in-memory repository.
+     */
+    @Bean
+    @Primary
+    public DeviceProfileRepository deviceProfileRepository(
+        @Qualifier("vendor") DeviceProfileRepository vendorRepository,
+        ObjectProvider<HedgedReader> hedgedReader,
+        MeterRegistry meterRegistry
+    ) {
+        DeviceProfileRepository repository = vendorRepository;
+        if (nearCacheEnabled) {
+            var nearCache = new CachingDeviceProfileRepository(repository, nearCacheTtl, nearCacheMaxSize);
+            if (metricsEnabled) nearCache.bindTo(meterRegistry);
+            repository = nearCache;
+        }
+        if (metricsEnabled) {
+            hedgedReader.ifAvailable(reader -> reader.bindTo(meterRegistry));
+            repository = new MeteredDeviceProfileRepository(repository, meterRegistry, AerospikeErrorCodes::of);
+        }
+        logger.info("Configuring device profile repository | vendor={} nearCacheEnabled={} metricsEnabled={}", vendorRepository.getClass().getSimpleName(), nearCacheEnabled, metricsEnabled);
+        return repository;
+    }
+}
@@ -0,0 +1,36 @@
+package com.experian.devicematcher.config;
+
+import com.experian.devicematcher.service.DeviceProfileService;
+import com.experian.devicematcher.service.DeviceProfileServiceImpl;
+import com.experian.devicematcher.service.MeteredDeviceProfileService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class ServiceConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ServiceConfig.class);
+
+    @Value("${devicematcher.metrics.enabled:false}")
+    private boolean metricsEnabled;
+
+    /**
+     * Device profile service used by the controllers: {@link DeviceProfileServiceImpl} wrapped with the optional
+     * decorators enabled by properties.
+     */
+    @Bean
+    @Primary
+    public DeviceProfileService deviceProfileService(DeviceProfileServiceImpl serviceImpl, MeterRegistry meterRegistry) {
+        DeviceProfileService service = serviceImpl;
+        if (metricsEnabled) {
+            service = new MeteredDeviceProfileService(service, meterRegistry);
+        }
+        logger.info("Configuring device profile service | metricsEnabled={}", metricsEnabled);
+        return service;
+    }
+}
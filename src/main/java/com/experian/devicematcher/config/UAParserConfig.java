@@ -1,14 +1,73 @@
 package com.experian.devicematcher.config;
 
+import com.experian.devicematcher.parser.CachingUserAgentParser;
+import com.experian.devicematcher.parser.MeteredUserAgentParser;
+import com.experian.devicematcher.parser.PrunedCatalogueParser;
+import com.experian.devicematcher.parser.UserAgentCustomParser;
+import com.experian.devicematcher.parser.UserAgentFastPathParser;
+import com.experian.devicematcher.parser.UserAgentParser;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 import ua_parser.Parser;
 
 @Configuration
 public class UAParserConfig {
+    private static final Logger logger = LoggerFactory.getLogger(UAParserConfig.class);
+
+    @Value("${devicematcher.parser.pruned-catalogue.enabled:false}")
+    private boolean prunedCatalogueEnabled;
+
+    @Value("${devicematcher.parser.fast-path.enabled:false}")
+    private boolean fastPathEnabled;
+
+    @Value("${devicematcher.parser.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Value("${devicematcher.parser.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${devicematcher.parser.cache.max-key-length:512}")
+    private int cacheMaxKeyLength;
+
+    @Value("${devicematcher.metrics.enabled:false}")
+    private boolean metricsEnabled;
+
+    /**
+     * uap-java parser: the full bundled catalogue, or only its user-agent and OS sections with prefiltered patterns.
+     */
     @Bean
     public Parser uaParser() {
-        return new Parser();
+        logger.info("Configuring uap-java parser | prunedCatalogueEnabled={}", prunedCatalogueEnabled);
+        return prunedCatalogueEnabled ? PrunedCatalogueParser.fromBundledCatalogue() : new Parser();
+    }
+
+    /**
+     * User-Agent parser used by the application: {@link UserAgentCustomParser} wrapped with the optional
+     * decorators enabled by properties.
+     */
+    @Bean
+    @Primary
+    public UserAgentParser userAgentParser(UserAgentCustomParser customParser, MeterRegistry meterRegistry) {
+        UserAgentParser parser = customParser;
+        if (fastPathEnabled) {
+            parser = new UserAgentFastPathParser(parser);
+        }
+        if (cacheEnabled) {
+            var cache = new CachingUserAgentParser(parser, cacheMaxSize, cacheMaxKeyLength);
+            if (metricsEnabled) cache.bindTo(meterRegistry);
+            parser = cache;
+        }
+        if (metricsEnabled) {
+            parser = new MeteredUserAgentParser(parser, meterRegistry);
+        }
+        logger.info("Configuring User-Agent parser | fastPathEnabled={} cacheEnabled={} metricsEnabled={}", fastPathEnabled, cacheEnabled, metricsEnabled);
+        return parser;
     }
 }
@@ -0,0 +1,133 @@
+package com.experian.devicematcher.controller;
+
+import com.experian.devicematcher.dto.DeviceProfileDTO;
+import com.experian.devicematcher.dto.DeviceProfilesDTO;
+import com.experian.devicematcher.service.DeviceProfileAsyncService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotBlank;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.experian.devicematcher.logging.RequestLog.REQUEST;
+
+/**
+ * Asynchronous variant of {@link DeviceProfileController}.
+ * Handlers return as soon as the database commands are sent, releasing the request thread; the response is written
+ * when the returned future completes. Failures are mapped to responses by the same exception handler.
+ */
+@RestController
+@RequestMapping("/v1/async/devices")
+@ConditionalOnProperty(name = "aerospike.async.enabled", havingValue = "true")
+@Tag(name = "Device Profile (async)", description = "Non-blocking device profile operations")
+public class DeviceProfileAsyncController {
+    private static final Logger logger = LoggerFactory.getLogger(DeviceProfileAsyncController.class);
+
+    private final DeviceProfileAsyncService service;
+
+    @Autowired
+    public DeviceProfileAsyncController(DeviceProfileAsyncService service) {
+        this.service = service;
+    }
+
+    @PostMapping(
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+        summary = "Match a device based on User-Agent",
+        description = "Creates or updates a device profile based on the User-Agent header",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Device matched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid User-Agent header")
+        }
+    )
+    public CompletableFuture<ResponseEntity<DeviceProfileDTO>> matchDeviceProfile(
+        @Parameter(description = "User-Agent header containing device information", required = true)
+        @RequestHeader(value = "User-Agent", required = true) @NotBlank String userAgent
+    ) {
+        logger.info(REQUEST, "Receiving Async Match Device Request | userAgent={}", userAgent);
+
+        return service.matchDevice(userAgent)
+            .thenApply(device -> ResponseEntity.ok(DeviceProfileDTO.from(device)));
+    }
+
+    @GetMapping(
+        value = "/{deviceId}",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+        summary = "Get device profile by ID",
+        description = "Retrieves a device profile using its unique identifier",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Device found successfully"),
+            @ApiResponse(responseCode = "404", description = "Device not found")
+        }
+    )
+    public CompletableFuture<ResponseEntity<DeviceProfileDTO>> getDeviceProfileById(
+        @Parameter(description = "ID of the device to retrieve", required = true)
+        @PathVariable(value = "deviceId", required = true) @NotBlank String deviceId
+    ) {
+        logger.info(REQUEST, "Receiving Async Get Device Profile By Id Request | deviceId={}", deviceId);
+
+        return service.getDeviceById(deviceId)
+            .thenApply(device -> device
+                .map(d -> ResponseEntity.ok(DeviceProfileDTO.from(d)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build()));
+    }
+
+    @GetMapping(
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+        summary = "Get devices by operating system",
+        description = "Retrieves all device profiles for a specific operating system",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Devices retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "No devices found")
+        }
+    )
+    public CompletableFuture<ResponseEntity<DeviceProfilesDTO>> getDeviceProfiles(
+        @Parameter(description = "Operating system name", required = true)
+        @RequestHeader(value = "os-name", required = true) @NotBlank String osName
+    ) {
+        logger.info(REQUEST, "Receiving Async Get Device Profiles Request | osName={}", osName);
+
+        return service.getDevicesByOS(osName)
+            .thenApply(devices -> devices.isEmpty()
+                ? ResponseEntity.status(HttpStatus.NOT_FOUND).<DeviceProfilesDTO>build()
+                : ResponseEntity.ok(DeviceProfilesDTO.from(devices)));
+    }
+
+    @DeleteMapping(
+        value = "/{deviceId}",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+        summary = "Delete a device profile",
+        description = "Deletes a device profile by ID",
+        responses = {
+            @ApiResponse(responseCode = "204", description = "Device deleted successfully"),
+        }
+    )
+    public CompletableFuture<ResponseEntity<Object>> deleteDeviceProfile(
+        @Parameter(description = "ID of the device to delete", required = true)
+        @PathVariable(value = "deviceId", required = true) @NotBlank String deviceId
+    ) {
+        logger.info(REQUEST, "Receiving Async Delete Device Profile Request | deviceId={}", deviceId);
+
+        return service.deleteDeviceById(deviceId)
+            .thenApply(ignored -> ResponseEntity.status(HttpStatus.NO_CONTENT).build());
+    }
+}
@@ -1,24 +1,48 @@
 package com.experian.devicematcher.controller;
 
+import com.experian.devicematcher.domain.DeviceProfileGroupBy;
+import com.experian.devicematcher.domain.DeviceProfileQuery;
+import com.experian.devicematcher.domain.SemVersion;
+import com.experian.devicematcher.dto.DeviceMatchBatchRequestDTO;
+import com.experian.devicematcher.dto.DeviceProfileCsv;
 import com.experian.devicematcher.dto.DeviceProfileDTO;
+import com.experian.devicematcher.dto.DeviceProfileImportDTO;
+import com.experian.devicematcher.dto.DeviceProfileRowReader;
+import com.experian.devicematcher.dto.DeviceProfileStatsDTO;
 import com.experian.devicematcher.dto.DeviceProfilesDTO;
 import com.experian.devicematcher.exceptions.DeviceProfileException;
-import com.experian.devicematcher.service.DeviceProfileServiceImpl;
+import com.experian.devicematcher.exceptions.DeviceProfileMatchException;
+import com.experian.devicematcher.exceptions.DeviceProfileQueryException;
 import com.experian.devicematcher.service.DeviceProfileService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import static com.experian.devicematcher.logging.RequestLog.REQUEST;
 
 @RestController
 @RequestMapping("/v1/devices")
@@ -26,11 +50,27 @@ import org.springframework.web.bind.annotation.*;
 public class DeviceProfileController {
     private static final Logger logger = LoggerFactory.getLogger(DeviceProfileController.class);
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final DeviceProfileService service;
 
+    private final int batchMaxSize;
+
+    private final int defaultPageSize;
+
+    private final ObjectWriter ndjsonWriter;
+
     @Autowired
-    public DeviceProfileController(DeviceProfileServiceImpl service) {
+    public DeviceProfileController(
+        DeviceProfileService service,
+        ObjectMapper objectMapper,
+        @Value("${devicematcher.batch.max-size:1000}") int batchMaxSize,
+        @Value("${devicematcher.page.default-size:100}") int defaultPageSize
+    ) {
         this.service = service;
+        this.batchMaxSize = batchMaxSize;
+        this.defaultPageSize = Math.min(defaultPageSize, MAX_PAGE_SIZE);
+        this.ndjsonWriter = objectMapper.writerFor(DeviceProfileDTO.class);
     }
 
     @PostMapping(
@@ -48,7 +88,7 @@ public class DeviceProfileController {
         @Parameter(description = "User-Agent header containing device information", required = true)
         @RequestHeader(value = "User-Agent", required = true) @NotBlank String userAgent
     ) throws DeviceProfileException {
-        logger.info("Receiving Match Device Request | userAgent={}", userAgent);
+        logger.info(REQUEST, "Receiving Match Device Request | userAgent={}", userAgent);
 
         var device = service.matchDevice(userAgent);
 
@@ -56,6 +96,37 @@ public class DeviceProfileController {
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    @PostMapping(
+        value = "/batch",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+        summary = "Match devices based on a batch of User-Agents",
+        description = "Creates or updates the device profiles of several User-Agent strings, returned in request order",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Devices matched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid or too many User-Agent strings")
+        }
+    )
+    public ResponseEntity<DeviceProfilesDTO> matchDeviceProfiles(
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "User-Agent strings to match", required = true)
+        @RequestBody DeviceMatchBatchRequestDTO request
+    ) throws DeviceProfileException {
+        logger.info(REQUEST, "Receiving Match Devices Batch Request | size={}", request.userAgents().size());
+
+        if (request.userAgents().size() > batchMaxSize) {
+            throw new DeviceProfileMatchException(new IllegalArgumentException(
+                "Batch size " + request.userAgents().size() + " exceeds the maximum of " + batchMaxSize
+            ));
+        }
+
+        var devices = service.matchDevices(request.userAgents());
+
+        var response = DeviceProfilesDTO.from(devices);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping(
         value = "/{deviceId}",
         produces = MediaType.APPLICATION_JSON_VALUE
@@ -72,7 +143,7 @@ public class DeviceProfileController {
         @Parameter(description = "ID of the device to retrieve", required = true)
         @PathVariable(value = "deviceId", required = true) @NotBlank String deviceId
     ) throws DeviceProfileException {
-        logger.info("Receiving Get Device Profile By Id Request | deviceId={}", deviceId);
+        logger.info(REQUEST, "Receiving Get Device Profile By Id Request | deviceId={}", deviceId);
 
         var device = service.getDeviceById(deviceId);
 
@@ -85,21 +156,65 @@ public class DeviceProfileController {
     }
 
     @GetMapping(
-        produces = MediaType.APPLICATION_JSON_VALUE
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
     )
     @Operation(
-        summary = "Get devices by operating system",
-        description = "Retrieves all device profiles for a specific operating system",
+        summary = "Get devices by operating system, browser and versions",
+        description = "Retrieves all device profiles for a specific operating system, "
+            + "or one page of them when pageSize or cursor is given. "
+            + "With Accept: application/x-ndjson all devices are streamed one per line as they are read from the database. "
+            + "When a browser or version range is given, the devices matching all criteria are searched instead, one page at a time",
         responses = {
             @ApiResponse(responseCode = "200", description = "Devices retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing criteria, invalid version or cursor"),
             @ApiResponse(responseCode = "404", description = "No devices found")
         }
     )
-    public ResponseEntity<DeviceProfilesDTO> getDeviceProfiles(
-        @Parameter(description = "Operating system name", required = true)
-        @RequestHeader(value = "os-name", required = true) @NotBlank String osName
+    public ResponseEntity<?> getDeviceProfiles(
+        @Parameter(description = "Operating system name, required unless a search parameter is given")
+        @RequestHeader(value = "os-name", required = false) String osName,
+        @Parameter(description = "Browser name, e.g. chrome")
+        @RequestParam(value = "browser", required = false) String browser,
+        @Parameter(description = "Lowest OS version, inclusive, e.g. 10 or 16.4.1")
+        @RequestParam(value = "osVersionMin", required = false) String osVersionMin,
+        @Parameter(description = "Highest OS version, inclusive")
+        @RequestParam(value = "osVersionMax", required = false) String osVersionMax,
+        @Parameter(description = "Lowest browser version, inclusive, e.g. 120")
+        @RequestParam(value = "browserVersionMin", required = false) String browserVersionMin,
+        @Parameter(description = "Highest browser version, inclusive")
+        @RequestParam(value = "browserVersionMax", required = false) String browserVersionMax,
+        @Parameter(description = "Maximum number of devices of the page")
+        @RequestParam(value = "pageSize", required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer pageSize,
+        @Parameter(description = "Cursor returned as nextCursor with the previous page")
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) throws DeviceProfileException {
-        logger.info("Receiving Get Device Profiles Request | osName={}", osName);
+        logger.info(REQUEST, "Receiving Get Device Profiles Request | osName={} browser={} osVersionMin={} osVersionMax={} browserVersionMin={} browserVersionMax={} pageSize={} cursor={}",
+            osName, browser, osVersionMin, osVersionMax, browserVersionMin, browserVersionMax, pageSize, cursor != null);
+
+        var search = browser != null || osVersionMin != null || osVersionMax != null || browserVersionMin != null || browserVersionMax != null;
+        if (search) {
+            if (acceptsNdjson(accept)) {
+                throw new DeviceProfileQueryException(new IllegalArgumentException("Streaming is only available by os-name"));
+            }
+            var query = searchQuery(osName, browser, osVersionMin, osVersionMax, browserVersionMin, browserVersionMax);
+            var page = service.searchDevices(query, pageSize != null ? pageSize : defaultPageSize, cursor);
+            return ResponseEntity.ok(DeviceProfilesDTO.from(page));
+        }
+
+        if (osName == null || osName.isBlank()) {
+            throw new DeviceProfileQueryException(new IllegalArgumentException("os-name header or a search parameter is required"));
+        }
+
+        if (acceptsNdjson(accept)) {
+            return streamDeviceProfiles(osName);
+        }
+
+        if (pageSize != null || cursor != null) {
+            var page = service.getDevicesByOS(osName, pageSize != null ? pageSize : defaultPageSize, cursor);
+            return ResponseEntity.ok(DeviceProfilesDTO.from(page));
+        }
 
         var devices = service.getDevicesByOS(osName);
 
@@ -111,6 +226,112 @@ public class DeviceProfileController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(
+        value = "/import",
+        consumes = {MediaType.APPLICATION_NDJSON_VALUE, DeviceProfileCsv.MEDIA_TYPE},
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+        summary = "Import device profiles in bulk",
+        description = "Creates or overwrites the device profiles of the body, hit counts included, with one device per line: "
+            + "NDJSON in the format of the export, or CSV with the header " + DeviceProfileCsv.HEADER + ". "
+            + "The body is read as the devices are written, with a bounded number of batch writes in flight. "
+            + "Devices before an invalid line may already be imported; imports are idempotent and can be run again",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Devices imported successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid device profile line")
+        }
+    )
+    public ResponseEntity<DeviceProfileImportDTO> importDeviceProfiles(
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.CONTENT_TYPE) String contentType,
+        @Parameter(hidden = true)
+        InputStream body
+    ) throws DeviceProfileException {
+        logger.info(REQUEST, "Receiving Import Device Profiles Request | contentType={}", contentType);
+
+        var format = MediaType.parseMediaType(contentType).equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)
+            ? DeviceProfileRowReader.Format.NDJSON
+            : DeviceProfileRowReader.Format.CSV;
+        var devices = new DeviceProfileRowReader(new InputStreamReader(body, StandardCharsets.UTF_8), format);
+        var imported = service.importDevices(devices);
+
+        return ResponseEntity.ok(new DeviceProfileImportDTO(imported));
+    }
+
+    @GetMapping(
+        value = "/export",
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, DeviceProfileCsv.MEDIA_TYPE}
+    )
+    @Operation(
+        summary = "Export all device profiles",
+        description = "Streams every device profile as it is read from the database, one per line, in no particular order: "
+            + "NDJSON by default, CSV with Accept: text/csv. The output can be imported with POST /v1/devices/import",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Devices exported successfully")
+        }
+    )
+    public ResponseEntity<StreamingResponseBody> exportDeviceProfiles(
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        logger.info(REQUEST, "Receiving Export Device Profiles Request | accept={}", accept);
+
+        var csv = acceptsCsv(accept);
+        StreamingResponseBody body = out -> {
+            try {
+                if (csv) out.write((DeviceProfileCsv.HEADER + '\n').getBytes(StandardCharsets.UTF_8));
+                service.exportDevices(device -> {
+                    try {
+                        var dto = DeviceProfileDTO.from(device);
+                        out.write(csv ? DeviceProfileCsv.toRow(dto).getBytes(StandardCharsets.UTF_8) : ndjsonWriter.writeValueAsBytes(dto));
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (DeviceProfileException ex) {
+                throw new IOException(ex);
+            }
+        };
+
+        var contentType = csv ? MediaType.parseMediaType(DeviceProfileCsv.MEDIA_TYPE) : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    @GetMapping(
+        value = "/stats",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+        summary = "Get device statistics",
+        description = "Counts the device profiles and sums their hit counts per value of a User-Agent property "
+            + "(osName, osVersion, browserName or browserVersion), for all devices or the devices of one operating system. "
+            + "The devices are aggregated by a parallel scan of the database and only the totals are returned, by descending hits",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Statistics computed successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid groupBy")
+        }
+    )
+    public ResponseEntity<DeviceProfileStatsDTO> getDeviceProfileStats(
+        @Parameter(description = "User-Agent property to group by: osName, osVersion, browserName or browserVersion", required = true)
+        @RequestParam(value = "groupBy", required = false) String groupBy,
+        @Parameter(description = "Operating system name, e.g. android; all devices when absent")
+        @RequestParam(value = "os", required = false) String osName
+    ) throws DeviceProfileException {
+        logger.info(REQUEST, "Receiving Get Device Profile Stats Request | groupBy={} osName={}", groupBy, osName);
+
+        DeviceProfileGroupBy property;
+        try {
+            property = DeviceProfileGroupBy.fromProperty(groupBy);
+        } catch (IllegalArgumentException ex) {
+            throw new DeviceProfileQueryException(ex);
+        }
+        var stats = service.getDeviceStats(property, osName);
+
+        return ResponseEntity.ok(DeviceProfileStatsDTO.from(stats));
+    }
+
     @DeleteMapping(
         value = "/{deviceId}",
         produces = MediaType.APPLICATION_JSON_VALUE
@@ -126,8 +347,64 @@ public class DeviceProfileController {
         @Parameter(description = "ID of the device to delete", required = true)
         @PathVariable(value = "deviceId", required = true) @NotBlank String deviceId
     ) throws DeviceProfileException {
-        logger.info("Receiving Delete Device Profile Request | deviceId={}", deviceId);
+        logger.info(REQUEST, "Receiving Delete Device Profile Request | deviceId={}", deviceId);
         service.deleteDeviceById(deviceId);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
+
+    /**
+     * Writes every device as one JSON line while it is read from the database, so memory use does not grow with the
+     * number of devices. Errors after the first line can no longer change the response status, and end the stream.
+     */
+    private ResponseEntity<StreamingResponseBody> streamDeviceProfiles(String osName) {
+        StreamingResponseBody body = out -> {
+            try {
+                service.streamDevicesByOS(osName, device -> {
+                    try {
+                        out.write(ndjsonWriter.writeValueAsBytes(DeviceProfileDTO.from(device)));
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (DeviceProfileException ex) {
+                throw new IOException(ex);
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static DeviceProfileQuery searchQuery(
+        String osName, String browser, String osVersionMin, String osVersionMax, String browserVersionMin, String browserVersionMax
+    ) throws DeviceProfileQueryException {
+        try {
+            return new DeviceProfileQuery(
+                osName,
+                browser,
+                parseVersion(osVersionMin),
+                parseVersion(osVersionMax),
+                parseVersion(browserVersionMin),
+                parseVersion(browserVersionMax)
+            );
+        } catch (IllegalArgumentException ex) {
+            throw new DeviceProfileQueryException(ex);
+        }
+    }
+
+    private static SemVersion parseVersion(String version) {
+        return version == null || version.isBlank() ? null : SemVersion.parse(version.strip());
+    }
+
+    private static boolean acceptsCsv(String accept) {
+        if (accept == null || accept.isBlank()) return false;
+        var csv = MediaType.parseMediaType(DeviceProfileCsv.MEDIA_TYPE);
+        return MediaType.parseMediaTypes(accept).stream().anyMatch(csv::equalsTypeAndSubtype);
+    }
+
+    // the JSON and NDJSON representations share one mapping, as Spring cannot tell them apart for Accept: */*
+    private static boolean acceptsNdjson(String accept) {
+        if (accept == null || accept.isBlank()) return false;
+        return MediaType.parseMediaTypes(accept).stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
 }
@@ -0,0 +1,45 @@
+package com.experian.devicematcher.domain;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * User-Agent property device profiles are grouped by in aggregations, named as in the device profile representation.
+ * Names are grouped case-insensitively, as lowercase, and versions by their full major.minor.patch value.
+ */
+public enum DeviceProfileGroupBy {
+    OS_NAME("osName", userAgent -> userAgent.osName().toLowerCase()),
+    OS_VERSION("osVersion", userAgent -> userAgent.osVersion().toString()),
+    BROWSER_NAME("browserName", userAgent -> userAgent.browserName().toLowerCase()),
+    BROWSER_VERSION("browserVersion", userAgent -> userAgent.browserVersion().toString());
+
+    private final String property;
+    private final Function<UserAgent, String> value;
+
+    DeviceProfileGroupBy(String property, Function<UserAgent, String> value) {
+        this.property = property;
+        this.value = value;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Group of the User-Agent.
+     */
+    public String valueOf(UserAgent userAgent) {
+        return value.apply(userAgent);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the property is not one of the User-Agent properties
+     */
+    public static DeviceProfileGroupBy fromProperty(String property) {
+        return Arrays.stream(values())
+            .filter(groupBy -> groupBy.property.equalsIgnoreCase(property == null ? "" : property.strip()))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("groupBy must be one of "
+                + Arrays.stream(values()).map(DeviceProfileGroupBy::property).toList() + ": " + property));
+    }
+}
@@ -0,0 +1,18 @@
+package com.experian.devicematcher.domain;
+
+/**
+ * Result of matching a User-Agent against the stored device profiles.
+ *
+ * @param device  the matched device profile, with its updated hit count
+ * @param created true if the device profile did not exist and was created by this match
+ */
+public record DeviceProfileMatch(
+    DeviceProfile device,
+    boolean created
+) {
+    public DeviceProfileMatch {
+        if (device == null) {
+            throw new IllegalArgumentException("Device cannot be null");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.experian.devicematcher.domain;
+
+import java.util.List;
+
+/**
+ * A page of device profiles.
+ *
+ * @param devices    the device profiles of this page, possibly empty even if more pages follow
+ * @param nextCursor opaque cursor of the next page, or null if this is the last page
+ */
+public record DeviceProfilePage(
+    List<DeviceProfile> devices,
+    String nextCursor
+) {
+    public DeviceProfilePage {
+        devices = devices == null ? List.of() : List.copyOf(devices);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.experian.devicematcher.domain;
+
+/**
+ * Criteria of a device profile search. Every criterion is optional, but at least one must be given.
+ * Names are matched case-insensitively and version bounds are inclusive.
+ *
+ * @param osName            exact OS name, e.g. "android"
+ * @param browserName       exact browser name, e.g. "chrome mobile"
+ * @param osVersionMin      lowest OS version
+ * @param osVersionMax      highest OS version
+ * @param browserVersionMin lowest browser version
+ * @param browserVersionMax highest browser version
+ */
+public record DeviceProfileQuery(
+    String osName,
+    String browserName,
+    SemVersion osVersionMin,
+    SemVersion osVersionMax,
+    SemVersion browserVersionMin,
+    SemVersion browserVersionMax
+) {
+    public DeviceProfileQuery {
+        osName = normalize(osName);
+        browserName = normalize(browserName);
+
+        if (osVersionMin != null && osVersionMax != null && osVersionMin.compareTo(osVersionMax) > 0) {
+            throw new IllegalArgumentException("osVersionMin cannot be greater than osVersionMax");
+        }
+        if (browserVersionMin != null && browserVersionMax != null && browserVersionMin.compareTo(browserVersionMax) > 0) {
+            throw new IllegalArgumentException("browserVersionMin cannot be greater than browserVersionMax");
+        }
+        if (osName == null && browserName == null && osVersionMin == null && osVersionMax == null
+            && browserVersionMin == null && browserVersionMax == null) {
+            throw new IllegalArgumentException("At least one search criterion is required");
+        }
+    }
+
+    public boolean hasOSVersionRange() {
+        return osVersionMin != null || osVersionMax != null;
+    }
+
+    public boolean hasBrowserVersionRange() {
+        return browserVersionMin != null || browserVersionMax != null;
+    }
+
+    private static String normalize(String name) {
+        return name == null || name.isBlank() ? null : name.strip().toLowerCase();
+    }
+}
@@ -0,0 +1,61 @@
+package com.experian.devicematcher.domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of device profiles and sum of their hit counts per value of a User-Agent property.
+ *
+ * @param groupBy the property the devices are grouped by
+ * @param osName  the OS name the devices were restricted to, or null for all devices
+ * @param groups  one group per value, by descending hits
+ */
+public record DeviceProfileStats(
+    DeviceProfileGroupBy groupBy,
+    String osName,
+    List<Group> groups
+) {
+    public record Group(String value, long devices, long hits) {
+    }
+
+    public DeviceProfileStats {
+        groups = groups == null ? List.of() : List.copyOf(groups);
+    }
+
+    public long devices() {
+        return groups.stream().mapToLong(Group::devices).sum();
+    }
+
+    public long hits() {
+        return groups.stream().mapToLong(Group::hits).sum();
+    }
+
+    /**
+     * Mutable running totals per group value. Not thread-safe: parallel aggregations keep one per thread and
+     * {@link #merge} them.
+     */
+    public static final class Accumulator {
+        private final Map<String, long[]> totals = new HashMap<>();
+
+        public void add(String value, long hitCount) {
+            var total = totals.computeIfAbsent(value, v -> new long[2]);
+            total[0]++;
+            total[1] += hitCount;
+        }
+
+        public Accumulator merge(Accumulator other) {
+            other.totals.forEach((value, total) -> totals.merge(value, total, (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]}));
+            return this;
+        }
+
+        public DeviceProfileStats toStats(DeviceProfileGroupBy groupBy, String osName) {
+            var groups = new ArrayList<Group>(totals.size());
+            totals.forEach((value, total) -> groups.add(new Group(value, total[0], total[1])));
+            groups.sort(Comparator.comparingLong(Group::hits).reversed().thenComparing(Group::value));
+            return new DeviceProfileStats(groupBy, osName, groups);
+        }
+    }
+}
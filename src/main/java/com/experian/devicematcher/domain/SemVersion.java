@@ -1,13 +1,31 @@
 package com.experian.devicematcher.domain;
 
-import static java.util.Comparator.comparingLong;
-
+/**
+ * Immutable major.minor.patch version.
+ * <p>
+ * Versions whose components fit in {@link #COMPONENT_BITS} bits each are also held as a single packed long, in
+ * component order, used for equality, hashing and comparison. {@link #of} and {@link #parse} share instances of
+ * such versions through a small direct-mapped cache, so the handful of versions seen in traffic are not allocated
+ * again on every request. The constructor always creates a new instance.
+ */
 public class SemVersion implements Comparable<SemVersion> {
+    private static final int COMPONENT_BITS = 21;
+    private static final long COMPONENT_MAX = (1L << COMPONENT_BITS) - 1;
+    // packed value of versions with a component above COMPONENT_MAX
+    private static final long NOT_PACKED = -1L;
+
+    private static final int CACHE_BITS = 12;
+    private static final int CACHE_SIZE = 1 << CACHE_BITS;
+    // racy on purpose: instances are immutable, a lost write only costs an allocation
+    private static final SemVersion[] CACHE = new SemVersion[CACHE_SIZE];
+
     private final long major;
     private final long minor;
     private final long patch;
+    private final long packed;
 
-    private final String versionString;
+    // built on first use, racing threads compute the same string
+    private String versionString;
 
     public SemVersion(long major, long minor, long patch) {
         if (major < 0) {
@@ -23,7 +41,23 @@ public class SemVersion implements Comparable<SemVersion> {
         this.major = major;
         this.minor = minor;
         this.patch = patch;
-        this.versionString = major + "." + minor + "." + patch;
+        this.packed = pack(major, minor, patch);
+    }
+
+    /**
+     * Same as the constructor, but returns a shared instance when one is cached for the version.
+     */
+    public static SemVersion of(long major, long minor, long patch) {
+        var packed = pack(major, minor, patch);
+        if (packed == NOT_PACKED) return new SemVersion(major, minor, patch);
+
+        var slot = slot(packed);
+        var cached = CACHE[slot];
+        if (cached != null && cached.packed == packed) return cached;
+
+        var version = new SemVersion(major, minor, patch);
+        CACHE[slot] = version;
+        return version;
     }
 
     public long getMajor() {
@@ -40,68 +74,97 @@ public class SemVersion implements Comparable<SemVersion> {
 
     @Override
     public String toString() {
-        return versionString;
+        var result = versionString;
+        if (result == null) {
+            result = major + "." + minor + "." + patch;
+            versionString = result;
+        }
+        return result;
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof SemVersion that)) return false;
-        return this.compareTo(that) == 0;
+        if (packed != NOT_PACKED || that.packed != NOT_PACKED) return packed == that.packed;
+        return major == that.major && minor == that.minor && patch == that.patch;
     }
 
     @Override
     public int hashCode() {
-        return versionString.hashCode();
+        if (packed != NOT_PACKED) return Long.hashCode(packed);
+        return 31 * (31 * Long.hashCode(major) + Long.hashCode(minor)) + Long.hashCode(patch);
     }
 
     @Override
     public int compareTo(SemVersion o) {
-        return comparingLong(SemVersion::getMajor)
-            .thenComparingLong(SemVersion::getMinor)
-            .thenComparingLong(SemVersion::getPatch)
-            .compare(this, o);
+        if (packed != NOT_PACKED && o.packed != NOT_PACKED) return Long.compare(packed, o.packed);
+        if (major != o.major) return Long.compare(major, o.major);
+        if (minor != o.minor) return Long.compare(minor, o.minor);
+        return Long.compare(patch, o.patch);
     }
 
+    /**
+     * Parses "major[.minor[.patch]]", missing or blank minor and patch being 0. Components after the patch are
+     * ignored.
+     */
     public static SemVersion parse(String versionString) {
         if (versionString == null || versionString.isBlank()) {
             throw new IllegalArgumentException("Version string cannot be null or blank");
         }
 
-        String[] parts = versionString.split("\\.");
-
-        if (parts.length == 0 || parts[0].isBlank()) {
+        var length = versionString.length();
+        var majorEnd = componentEnd(versionString, 0);
+        if (isBlank(versionString, 0, majorEnd)) {
             throw new IllegalArgumentException("Major version is mandatory");
         }
+        var major = parseComponent(versionString, 0, majorEnd, "Major");
+
+        long minor = 0;
+        long patch = 0;
+        if (majorEnd < length) {
+            var minorEnd = componentEnd(versionString, majorEnd + 1);
+            minor = parseComponent(versionString, majorEnd + 1, minorEnd, "Minor");
+            if (minorEnd < length) {
+                patch = parseComponent(versionString, minorEnd + 1, componentEnd(versionString, minorEnd + 1), "Patch");
+            }
+        }
+
+        return of(major, minor, patch);
+    }
 
-        // Parse major version (mandatory)
-        long major;
+    private static int componentEnd(String versionString, int start) {
+        var end = versionString.indexOf('.', start);
+        return end < 0 ? versionString.length() : end;
+    }
+
+    /**
+     * @return the component between start and end, 0 if it is blank
+     */
+    private static long parseComponent(String versionString, int start, int end, String component) {
+        if (isBlank(versionString, start, end)) return 0;
         try {
-            major = Long.parseLong(parts[0]);
+            return Long.parseLong(versionString, start, end, 10);
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Major version must be a valid number: " + parts[0], e);
+            throw new IllegalArgumentException(component + " version must be a valid number: " + versionString.substring(start, end), e);
         }
+    }
 
-        // Parse minor version (optional)
-        long minor = 0;
-        if (parts.length > 1 && !parts[1].isBlank()) {
-            try {
-                minor = Long.parseLong(parts[1]);
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Minor version must be a valid number: " + parts[1], e);
-            }
+    private static boolean isBlank(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(s.charAt(i))) return false;
         }
+        return true;
+    }
 
-        // Parse patch version (optional)
-        long patch = 0;
-        if (parts.length > 2 && !parts[2].isBlank()) {
-            try {
-                patch = Long.parseLong(parts[2]);
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Patch version must be a valid number: " + parts[2], e);
-            }
-        }
+    private static long pack(long major, long minor, long patch) {
+        if (major < 0 || minor < 0 || patch < 0) return NOT_PACKED;
+        if (major > COMPONENT_MAX || minor > COMPONENT_MAX || patch > COMPONENT_MAX) return NOT_PACKED;
+        return (major << (2 * COMPONENT_BITS)) | (minor << COMPONENT_BITS) | patch;
+    }
 
-        return new SemVersion(major, minor, patch);
+    private static int slot(long packed) {
+        var hash = packed * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> (Long.SIZE - CACHE_BITS));
     }
 }
@@ -0,0 +1,16 @@
+package com.experian.devicematcher.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DeviceMatchBatchRequestDTO(
+    @JsonProperty("userAgents")
+    List<String> userAgents
+) {
+    public DeviceMatchBatchRequestDTO {
+        userAgents = userAgents == null ? List.of() : userAgents;
+    }
+}
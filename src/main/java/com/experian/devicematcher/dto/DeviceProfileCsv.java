@@ -0,0 +1,85 @@
+package com.experian.devicematcher.dto;
+
+import java.util.ArrayList;
+
+/**
+ * CSV representation of {@link DeviceProfileDTO} rows, used by the bulk import and export: a header line with the
+ * DTO property names, then one device profile per line.
+ * Fields holding a comma or a double quote are quoted as in RFC 4180. Line breaks inside fields are not supported,
+ * User-Agent names never contain one.
+ */
+public final class DeviceProfileCsv {
+    public static final String MEDIA_TYPE = "text/csv";
+    public static final String HEADER = "deviceId,hitCount,osName,osVersion,browserName,browserVersion";
+
+    private static final int COLUMNS = 6;
+
+    private DeviceProfileCsv() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static String toRow(DeviceProfileDTO device) {
+        return String.join(",",
+            field(device.deviceId()),
+            String.valueOf(device.hitCount()),
+            field(device.osName()),
+            field(device.osVersion()),
+            field(device.browserName()),
+            field(device.browserVersion())
+        );
+    }
+
+    /**
+     * @throws IllegalArgumentException if the row does not have the columns of {@link #HEADER} or its hit count is
+     *                                  not a number
+     */
+    public static DeviceProfileDTO fromRow(String row) {
+        var fields = split(row);
+        if (fields.size() != COLUMNS) {
+            throw new IllegalArgumentException("Expected " + COLUMNS + " columns, found " + fields.size());
+        }
+        return new DeviceProfileDTO(
+            fields.get(0),
+            Long.valueOf(fields.get(1).strip()),
+            fields.get(2),
+            fields.get(3),
+            fields.get(4),
+            fields.get(5)
+        );
+    }
+
+    private static String field(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static ArrayList<String> split(String row) {
+        var fields = new ArrayList<String>(COLUMNS);
+        var field = new StringBuilder();
+        var quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            var c = row.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+        fields.add(field.toString());
+        return fields;
+    }
+}
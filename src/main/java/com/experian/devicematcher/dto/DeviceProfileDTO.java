@@ -1,6 +1,7 @@
 package com.experian.devicematcher.dto;
 
 import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.UserAgent;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -34,4 +35,11 @@ public record DeviceProfileDTO(
             deviceProfile.userAgent().browserVersion().toString()
         );
     }
+
+    /**
+     * @throws IllegalArgumentException if a field is missing or a version is invalid
+     */
+    public DeviceProfile toDeviceProfile() {
+        return new DeviceProfile(deviceId, hitCount, new UserAgent(osName, osVersion, browserName, browserVersion));
+    }
 }
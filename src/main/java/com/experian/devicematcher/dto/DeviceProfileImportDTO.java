@@ -0,0 +1,10 @@
+package com.experian.devicematcher.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DeviceProfileImportDTO(
+    @JsonProperty("imported")
+    long imported
+) {}
@@ -0,0 +1,88 @@
+package com.experian.devicematcher.dto;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads device profiles from {@link DeviceProfileDTO} rows, one per line, in NDJSON or CSV (see
+ * {@link DeviceProfileCsv}; the header line is optional).
+ * Lines are read as devices are requested, so a bulk import only holds the devices of the batches being written.
+ * Blank lines are skipped.
+ * <p>
+ * {@link #hasNext()} and {@link #next()} throw {@link IllegalArgumentException} for an invalid line, with its
+ * number, and {@link UncheckedIOException} if the input cannot be read.
+ */
+public class DeviceProfileRowReader implements Iterator<DeviceProfile> {
+    private static final ObjectReader JSON_READER = new ObjectMapper().readerFor(DeviceProfileDTO.class);
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private long lineNumber;
+    private DeviceProfile next;
+    private boolean done;
+
+    public DeviceProfileRowReader(Reader reader, Format format) {
+        this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        this.format = format;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) next = readNext();
+        return next != null;
+    }
+
+    @Override
+    public DeviceProfile next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        var device = next;
+        next = null;
+        return device;
+    }
+
+    /**
+     * Number of the last line read, starting at 1.
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    private DeviceProfile readNext() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                if (format == Format.CSV && lineNumber == 1 && line.strip().equals(DeviceProfileCsv.HEADER)) continue;
+                return parse(line);
+            }
+            done = true;
+            return null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private DeviceProfile parse(String line) {
+        try {
+            var dto = format == Format.CSV ? DeviceProfileCsv.fromRow(line) : JSON_READER.<DeviceProfileDTO>readValue(line);
+            return dto.toDeviceProfile();
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid device profile | line=" + lineNumber + " error=" + ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.experian.devicematcher.dto;
+
+import com.experian.devicematcher.domain.DeviceProfileStats;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DeviceProfileStatsDTO(
+    @JsonProperty("groupBy")
+    String groupBy,
+
+    @JsonProperty("osName")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String osName,
+
+    @JsonProperty("devices")
+    long devices,
+
+    @JsonProperty("hits")
+    long hits,
+
+    @JsonProperty("groups")
+    List<GroupDTO> groups
+) {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record GroupDTO(
+        @JsonProperty("value")
+        String value,
+
+        @JsonProperty("devices")
+        long devices,
+
+        @JsonProperty("hits")
+        long hits
+    ) {}
+
+    public DeviceProfileStatsDTO {
+        groups = groups == null ? List.of() : groups;
+    }
+
+    public static DeviceProfileStatsDTO from(DeviceProfileStats stats) {
+        return new DeviceProfileStatsDTO(
+            stats.groupBy().property(),
+            stats.osName(),
+            stats.devices(),
+            stats.hits(),
+            stats.groups().stream().map(group -> new GroupDTO(group.value(), group.devices(), group.hits())).toList()
+        );
+    }
+}
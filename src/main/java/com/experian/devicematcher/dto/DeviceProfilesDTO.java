@@ -1,7 +1,9 @@
 package com.experian.devicematcher.dto;
 
 import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfilePage;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
@@ -9,13 +11,25 @@ import java.util.List;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record DeviceProfilesDTO(
     @JsonProperty("devices")
-    List<DeviceProfileDTO> devices
+    List<DeviceProfileDTO> devices,
+
+    @JsonProperty("nextCursor")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String nextCursor
 ) {
     public DeviceProfilesDTO {
         devices = devices == null ? List.of() : devices;
     }
 
+    public DeviceProfilesDTO(List<DeviceProfileDTO> devices) {
+        this(devices, null);
+    }
+
     public static DeviceProfilesDTO from(List<DeviceProfile> devices) {
         return new DeviceProfilesDTO(devices.stream().map(DeviceProfileDTO::from).toList());
     }
+
+    public static DeviceProfilesDTO from(DeviceProfilePage page) {
+        return new DeviceProfilesDTO(page.devices().stream().map(DeviceProfileDTO::from).toList(), page.nextCursor());
+    }
 }
@@ -41,6 +41,20 @@ public class AppExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(DeviceProfileQueryException.class)
+    public ResponseEntity<ApiErrorDTO> handleDeviceProfileQueryException(DeviceProfileQueryException ex) {
+        logger.error("DeviceProfileQueryException: {}", ex.getMessage(), ex);
+        var error = new ApiErrorDTO(HttpStatus.BAD_REQUEST.value(), ex.getClass().getSimpleName(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(DeviceProfileImportException.class)
+    public ResponseEntity<ApiErrorDTO> handleDeviceProfileImportException(DeviceProfileImportException ex) {
+        logger.error("DeviceProfileImportException: {}", ex.getMessage(), ex);
+        var error = new ApiErrorDTO(HttpStatus.BAD_REQUEST.value(), ex.getClass().getSimpleName(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(DeviceProfileDeleteException.class)
     public ResponseEntity<ApiErrorDTO> handleDeviceProfileDeleteException(DeviceProfileDeleteException ex) {
         logger.error("DeviceProfileDeleteException: {}", ex.getMessage(), ex);
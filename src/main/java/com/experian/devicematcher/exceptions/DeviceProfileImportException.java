@@ -0,0 +1,9 @@
+package com.experian.devicematcher.exceptions;
+
+public class DeviceProfileImportException extends DeviceProfileException {
+    private static final long serialVersionUID = 1L;
+
+    public DeviceProfileImportException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,9 @@
+package com.experian.devicematcher.exceptions;
+
+public class DeviceProfileQueryException extends DeviceProfileException {
+    private static final long serialVersionUID = 1L;
+
+    public DeviceProfileQueryException(Throwable cause) {
+        super(cause);
+    }
+}
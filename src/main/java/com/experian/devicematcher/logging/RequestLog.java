@@ -0,0 +1,16 @@
+package com.experian.devicematcher.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Marker of the statements logged on every request (controllers, services, parser, repositories), which
+ * {@link RequestLogSampler} samples and rate-limits. Startup, background and error statements are not marked.
+ */
+public final class RequestLog {
+    public static final Marker REQUEST = MarkerFactory.getMarker("REQUEST");
+
+    private RequestLog() {
+        throw new IllegalStateException("Utility class");
+    }
+}
@@ -0,0 +1,84 @@
+package com.experian.devicematcher.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that thins out the per-request log statements before they are formatted or queued.
+ * <ul>
+ *   <li>{@link RequestLog#REQUEST} statements at INFO or below are kept with probability {@code sampleRate}, and at
+ *   most {@code maxPerSecond} of them are kept per second (0 = no limit).</li>
+ *   <li>DEBUG statements of loggers under {@code debugLoggerPrefix} are emitted with probability
+ *   {@code debugSampleRate} even when their logger is above DEBUG, to get a trickle of request details from
+ *   production without enabling DEBUG.</li>
+ * </ul>
+ * Statements are sampled independently of each other, not per request. WARN and ERROR are never filtered, and
+ * logback-spring.xml writes them through an appender that never drops them.
+ * Configured in logback-spring.xml from the {@code devicematcher.logging.*} properties.
+ */
+public class RequestLogSampler extends TurboFilter {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private double sampleRate = 1.0;
+    private long maxPerSecond;
+    private double debugSampleRate;
+    private String debugLoggerPrefix = "com.experian.devicematcher";
+
+    // fixed one-second window of the rate limit: start of the window and statements kept in it
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong windowCount = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN)) return FilterReply.NEUTRAL;
+
+        if (marker != null && marker.contains(RequestLog.REQUEST)) {
+            return keepRequestStatement() ? FilterReply.NEUTRAL : FilterReply.DENY;
+        }
+
+        if (level == Level.DEBUG && debugSampleRate > 0 && logger.getName().startsWith(debugLoggerPrefix)) {
+            // isDebugEnabled() guards go through here as well, so guarded statements are sampled twice
+            return sample(debugSampleRate) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private boolean keepRequestStatement() {
+        if (!sample(sampleRate)) return false;
+        return maxPerSecond <= 0 || withinRate(System.nanoTime());
+    }
+
+    boolean withinRate(long now) {
+        var start = windowStart.get();
+        if (now - start >= NANOS_PER_SECOND && windowStart.compareAndSet(start, now)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= maxPerSecond;
+    }
+
+    private static boolean sample(double rate) {
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public void setMaxPerSecond(long maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public void setDebugSampleRate(double debugSampleRate) {
+        this.debugSampleRate = debugSampleRate;
+    }
+
+    public void setDebugLoggerPrefix(String debugLoggerPrefix) {
+        this.debugLoggerPrefix = debugLoggerPrefix;
+    }
+}
@@ -0,0 +1,94 @@
+package com.experian.devicematcher.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Times the operations of one component under a single timer name, tagged by operation and outcome.
+ * <p>
+ * Tags: {@code operation}, {@code outcome} (success or error), {@code exception} (simple class name) and
+ * {@code code} (error code given by the classifier, e.g. the Aerospike result code). Success timers are looked up
+ * once per operation; error timers are resolved on each failure.
+ * Percentile histograms are off by default and can be enabled per timer name with
+ * {@code management.metrics.distribution.percentiles-histogram.<name>=true}.
+ */
+public class OperationTimer {
+    public static final String NONE = "none";
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+        void run() throws E;
+    }
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final String description;
+    private final Function<Throwable, String> errorCode;
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+
+    public OperationTimer(MeterRegistry registry, String name, String description) {
+        this(registry, name, description, ex -> NONE);
+    }
+
+    /**
+     * @param errorCode classifies failures into the {@code code} tag, must return a value of low cardinality
+     */
+    public OperationTimer(MeterRegistry registry, String name, String description, Function<Throwable, String> errorCode) {
+        this.registry = registry;
+        this.name = name;
+        this.description = description;
+        this.errorCode = errorCode;
+    }
+
+    public <T, E extends Exception> T record(String operation, Call<T, E> call) throws E {
+        var start = registry.config().clock().monotonicTime();
+        try {
+            var result = call.call();
+            successTimer(operation).record(elapsed(start), TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            errorTimer(operation, ex).record(elapsed(start), TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    public <E extends Exception> void run(String operation, Action<E> action) throws E {
+        record(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private long elapsed(long start) {
+        return registry.config().clock().monotonicTime() - start;
+    }
+
+    private Timer successTimer(String operation) {
+        return successTimers.computeIfAbsent(operation, op -> timer(op, "success", NONE, NONE));
+    }
+
+    private Timer errorTimer(String operation, Throwable ex) {
+        var code = errorCode.apply(ex);
+        return timer(operation, "error", ex.getClass().getSimpleName(), code == null ? NONE : code);
+    }
+
+    private Timer timer(String operation, String outcome, String exception, String code) {
+        return Timer.builder(name)
+            .description(description)
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .tag("exception", exception)
+            .tag("code", code)
+            .register(registry);
+    }
+}
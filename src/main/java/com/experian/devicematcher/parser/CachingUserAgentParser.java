@@ -0,0 +1,78 @@
+package com.experian.devicematcher.parser;
+
+import com.experian.devicematcher.domain.UserAgent;
+import com.experian.devicematcher.exceptions.UserAgentParsingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorator that caches parsed {@link UserAgent}s by their raw User-Agent string.
+ * Real traffic has few distinct User-Agent strings, so most requests skip the regex-based parsing entirely.
+ * The cache is bounded by size and evicts using Caffeine's W-TinyLFU policy (frequency and recency).
+ * Parsing failures are not cached, and strings longer than {@code maxKeyLength} bypass the cache.
+ */
+public class CachingUserAgentParser implements UserAgentParser {
+    private static final Logger logger = LoggerFactory.getLogger(CachingUserAgentParser.class);
+
+    private final UserAgentParser delegate;
+    private final Cache<String, UserAgent> cache;
+    private final int maxKeyLength;
+
+    public CachingUserAgentParser(UserAgentParser delegate, long maximumSize, int maxKeyLength) {
+        this.delegate = delegate;
+        this.maxKeyLength = maxKeyLength;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+        logger.info("User-Agent parser cache enabled | maximumSize={} maxKeyLength={}", maximumSize, maxKeyLength);
+    }
+
+    @Override
+    public UserAgent parse(String userAgentString) throws UserAgentParsingException {
+        if (StringUtils.isBlank(userAgentString) || userAgentString.length() > maxKeyLength) {
+            return delegate.parse(userAgentString);
+        }
+
+        var cached = cache.getIfPresent(userAgentString);
+        if (cached != null) return cached;
+
+        var userAgent = delegate.parse(userAgentString);
+        cache.put(userAgentString, userAgent);
+        return userAgent;
+    }
+
+    /**
+     * Registers the cache metrics (gets by hit or miss, evictions, size) under the cache name "useragent-parser".
+     */
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "useragent-parser");
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    Cache<String, UserAgent> cache() {
+        return cache;
+    }
+}
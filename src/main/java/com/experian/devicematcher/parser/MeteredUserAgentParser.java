@@ -0,0 +1,27 @@
+package com.experian.devicematcher.parser;
+
+import com.experian.devicematcher.domain.UserAgent;
+import com.experian.devicematcher.exceptions.UserAgentParsingException;
+import com.experian.devicematcher.metrics.OperationTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decorator that times User-Agent parsing ({@code devicematcher.parser}), as seen by the service: when it wraps
+ * the cache, cache hits are part of the distribution.
+ */
+public class MeteredUserAgentParser implements UserAgentParser {
+    public static final String TIMER = "devicematcher.parser";
+
+    private final UserAgentParser delegate;
+    private final OperationTimer timer;
+
+    public MeteredUserAgentParser(UserAgentParser delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.timer = new OperationTimer(registry, TIMER, "User-Agent parsing");
+    }
+
+    @Override
+    public UserAgent parse(String userAgentString) throws UserAgentParsingException {
+        return timer.record("parse", () -> delegate.parse(userAgentString));
+    }
+}
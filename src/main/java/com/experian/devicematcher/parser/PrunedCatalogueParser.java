@@ -0,0 +1,170 @@
+package com.experian.devicematcher.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import ua_parser.Client;
+import ua_parser.Device;
+import ua_parser.OS;
+import ua_parser.OSParser;
+import ua_parser.Parser;
+import ua_parser.UserAgent;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * uap-java {@link Parser} restricted to the user-agent and OS sections of the regex catalogue, the only ones the
+ * application stores.
+ * <p>
+ * The device section is dropped when the catalogue is loaded, and each remaining pattern is compiled on first use
+ * rather than at startup. Patterns are still evaluated in catalogue order, but those with a mandatory literal (see
+ * {@link RegexPrefilter}) are skipped without running the regex when the User-Agent does not contain it.
+ * Results are the same as the full parser for the user-agent and OS; the device is always "Other".
+ */
+public class PrunedCatalogueParser extends Parser {
+    private static final Logger logger = LoggerFactory.getLogger(PrunedCatalogueParser.class);
+
+    private static final String BUNDLED_CATALOGUE = "/ua_parser/regexes.yaml";
+    private static final String EMPTY_CATALOGUE = "user_agent_parsers: []\nos_parsers: []\ndevice_parsers: []\n";
+    private static final String OTHER = "Other";
+
+    private final List<Entry<ua_parser.UserAgentParser>> userAgentEntries;
+    private final List<Entry<OSParser>> osEntries;
+    private final boolean anyIgnoreCase;
+
+    /**
+     * @param catalogue uap-core regexes.yaml, only its user_agent_parsers and os_parsers sections are read
+     */
+    public PrunedCatalogueParser(InputStream catalogue) {
+        // the superclass gets an empty catalogue, so nothing is compiled twice
+        super(new ByteArrayInputStream(EMPTY_CATALOGUE.getBytes(StandardCharsets.UTF_8)));
+
+        Map<String, List<Map<String, String>>> config = new Yaml(new SafeConstructor(new LoaderOptions())).load(catalogue);
+        this.userAgentEntries = entries(config, "user_agent_parsers", ua_parser.UserAgentParser::fromList);
+        this.osEntries = entries(config, "os_parsers", OSParser::fromList);
+        this.anyIgnoreCase = userAgentEntries.stream().anyMatch(Entry::ignoreCase) || osEntries.stream().anyMatch(Entry::ignoreCase);
+
+        logger.info("Pruned User-Agent catalogue loaded | userAgentPatterns={} osPatterns={} prefiltered={}",
+            userAgentEntries.size(), osEntries.size(),
+            userAgentEntries.stream().filter(Entry::prefiltered).count() + osEntries.stream().filter(Entry::prefiltered).count());
+    }
+
+    /**
+     * Pruned parser over the catalogue bundled with uap-java.
+     */
+    public static PrunedCatalogueParser fromBundledCatalogue() {
+        try (var in = Objects.requireNonNull(Parser.class.getResourceAsStream(BUNDLED_CATALOGUE), "Missing " + BUNDLED_CATALOGUE)) {
+            return new PrunedCatalogueParser(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public Client parse(String agentString) {
+        return new Client(parseUserAgent(agentString), parseOS(agentString), parseDevice(agentString));
+    }
+
+    @Override
+    public UserAgent parseUserAgent(String agentString) {
+        if (agentString == null) return null;
+
+        var lowerAgentString = lowerCase(agentString);
+        for (var entry : userAgentEntries) {
+            if (!entry.mayMatch(agentString, lowerAgentString)) continue;
+            var userAgent = entry.compiled().parse(agentString);
+            if (!isNoMatch(userAgent.family, userAgent.major)) return userAgent;
+        }
+        return new UserAgent(OTHER, null, null, null);
+    }
+
+    @Override
+    public OS parseOS(String agentString) {
+        if (agentString == null) return null;
+
+        var lowerAgentString = lowerCase(agentString);
+        for (var entry : osEntries) {
+            if (!entry.mayMatch(agentString, lowerAgentString)) continue;
+            var os = entry.compiled().parse(agentString);
+            if (!isNoMatch(os.family, os.major)) return os;
+        }
+        return new OS(OTHER, null, null, null, null);
+    }
+
+    @Override
+    public Device parseDevice(String agentString) {
+        return agentString == null ? null : new Device(OTHER);
+    }
+
+    private String lowerCase(String agentString) {
+        return anyIgnoreCase ? agentString.toLowerCase(Locale.ROOT) : agentString;
+    }
+
+    /**
+     * Each entry is compiled as a single-pattern uap parser, which answers "Other" without a version when its
+     * pattern does not match (or matches without a family, which uap also skips).
+     */
+    private static boolean isNoMatch(String family, String major) {
+        return OTHER.equals(family) && major == null;
+    }
+
+    private static <T> List<Entry<T>> entries(Map<String, List<Map<String, String>>> config, String section,
+                                              Function<List<Map<String, String>>, T> compiler) {
+        var patterns = config == null ? null : config.get(section);
+        if (patterns == null) throw new IllegalArgumentException(section + " is missing from the catalogue");
+
+        return patterns.stream()
+            .map(pattern -> new Entry<>(pattern, compiler))
+            .toList();
+    }
+
+    /**
+     * Catalogue pattern with its prefilter, compiled on first use.
+     */
+    private static final class Entry<T> {
+        private final Map<String, String> pattern;
+        private final RegexPrefilter prefilter;
+        private final Function<List<Map<String, String>>, T> compiler;
+        // racing threads may both compile the pattern, either result is equivalent
+        private volatile T compiled;
+
+        private Entry(Map<String, String> pattern, Function<List<Map<String, String>>, T> compiler) {
+            this.pattern = pattern;
+            this.prefilter = RegexPrefilter.of(pattern.get("regex"), "i".equals(pattern.get("regex_flag")));
+            this.compiler = compiler;
+        }
+
+        boolean prefiltered() {
+            return prefilter != null;
+        }
+
+        boolean ignoreCase() {
+            return prefilter != null && prefilter.ignoreCase();
+        }
+
+        boolean mayMatch(String agentString, String lowerAgentString) {
+            return prefilter == null || prefilter.mayMatch(agentString, lowerAgentString);
+        }
+
+        T compiled() {
+            var result = compiled;
+            if (result == null) {
+                result = compiler.apply(List.of(pattern));
+                compiled = result;
+            }
+            return result;
+        }
+    }
+}
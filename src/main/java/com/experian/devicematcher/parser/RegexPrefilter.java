@@ -0,0 +1,278 @@
+package com.experian.devicematcher.parser;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Literal substring that every match of a regex must contain, used to skip the regex when the input does not
+ * contain it.
+ * <p>
+ * The extraction is conservative: only plain sequences outside of alternations, optional parts and character
+ * classes are taken, and anything the scanner does not understand ends the current run. A regex without such a
+ * literal gets no prefilter and is always evaluated, so a missed literal only costs time, never a wrong result.
+ */
+final class RegexPrefilter {
+    private static final int MIN_LENGTH = 2;
+
+    // inline flags that change how literals are read (comments mode, literal mode): no prefilter at all
+    private static final Pattern UNSUPPORTED_FLAGS = Pattern.compile("\\(\\?[a-zA-Z-]*[xX][a-zA-Z-]*[:)]");
+
+    private final String literal;
+    private final boolean ignoreCase;
+
+    private RegexPrefilter(String literal, boolean ignoreCase) {
+        this.literal = ignoreCase ? literal.toLowerCase(Locale.ROOT) : literal;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * @return the prefilter of the regex, or null if it has no usable literal
+     */
+    static RegexPrefilter of(String regex, boolean ignoreCase) {
+        if (UNSUPPORTED_FLAGS.matcher(regex).find()) return null;
+        var literal = new Extractor(regex).longestLiteral();
+        if (literal == null || literal.length() < MIN_LENGTH) return null;
+        return new RegexPrefilter(literal, ignoreCase || regex.contains("(?i"));
+    }
+
+    String literal() {
+        return literal;
+    }
+
+    boolean ignoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * @param input      string being parsed
+     * @param lowerInput the same string lower-cased with {@link Locale#ROOT}, for case-insensitive prefilters
+     * @return false if the regex cannot match the input
+     */
+    boolean mayMatch(String input, String lowerInput) {
+        return ignoreCase ? lowerInput.contains(literal) : input.contains(literal);
+    }
+
+    /**
+     * Single pass over a regex (or a group of it) collecting the runs of literal characters that are mandatory.
+     */
+    private static final class Extractor {
+        private final String regex;
+        private final int end;
+        private int pos;
+        private final StringBuilder run = new StringBuilder();
+        private String longest;
+
+        private Extractor(String regex) {
+            this(regex, 0, regex.length());
+        }
+
+        private Extractor(String regex, int start, int end) {
+            this.regex = regex;
+            this.pos = start;
+            this.end = end;
+        }
+
+        String longestLiteral() {
+            if (hasTopLevelAlternation()) return null;
+            while (pos < end) {
+                if (!step()) {
+                    // unsupported construct: keep what was found before it
+                    breakRun();
+                    break;
+                }
+            }
+            breakRun();
+            return longest;
+        }
+
+        /**
+         * Consumes one element of the regex.
+         *
+         * @return false if the element is not understood
+         */
+        private boolean step() {
+            var c = regex.charAt(pos);
+            switch (c) {
+                case '\\' -> {
+                    return escape();
+                }
+                case '[' -> {
+                    breakRun();
+                    var close = classEnd(pos);
+                    if (close < 0) return false;
+                    pos = close + 1;
+                    skipQuantifier();
+                    return true;
+                }
+                case '(' -> {
+                    return group();
+                }
+                case '.', '^', '$' -> {
+                    breakRun();
+                    pos++;
+                    skipQuantifier();
+                    return true;
+                }
+                case '?', '*', '+', '{', '|', ')' -> {
+                    return false;
+                }
+                default -> {
+                    pos++;
+                    literal(c);
+                    return true;
+                }
+            }
+        }
+
+        private boolean escape() {
+            if (pos + 1 >= end) return false;
+            var c = regex.charAt(pos + 1);
+            if (Character.isLetterOrDigit(c)) {
+                // character classes (\d, \s...), anchors (\b) and back references: not a literal
+                if (c == 'x' || c == 'u' || c == 'p' || c == 'P' || c == 'Q' || c == 'k' || c == 'c') return false;
+                breakRun();
+                pos += 2;
+                skipQuantifier();
+                return true;
+            }
+            pos += 2;
+            literal(c);
+            return true;
+        }
+
+        /**
+         * Appends a literal character, taking the quantifier that follows it into account.
+         */
+        private void literal(char c) {
+            if (pos >= end) {
+                run.append(c);
+                return;
+            }
+            var next = regex.charAt(pos);
+            if (next == '?' || next == '*' || next == '{') {
+                // optional or counted: the character may be absent or repeated
+                breakRun();
+                skipQuantifier();
+            } else if (next == '+') {
+                run.append(c);
+                breakRun();
+                skipQuantifier();
+            } else {
+                run.append(c);
+            }
+        }
+
+        private boolean group() {
+            breakRun();
+            var close = groupEnd(pos);
+            if (close < 0) return false;
+
+            var contentStart = pos + 1;
+            var mandatory = true;
+            if (regex.startsWith("?:", contentStart)) {
+                contentStart += 2;
+            } else if (contentStart < close && regex.charAt(contentStart) == '?') {
+                // lookaround, named group or inline flags: not taken
+                mandatory = false;
+            }
+
+            pos = close + 1;
+            if (pos < end) {
+                var next = regex.charAt(pos);
+                if (next == '?' || next == '*' || regex.startsWith("{0", pos)) mandatory = false;
+            }
+            skipQuantifier();
+
+            if (mandatory) {
+                var inner = new Extractor(regex, contentStart, close).longestLiteral();
+                if (inner != null && (longest == null || inner.length() > longest.length())) longest = inner;
+            }
+            return true;
+        }
+
+        private void skipQuantifier() {
+            if (pos >= end) return;
+            var c = regex.charAt(pos);
+            if (c == '?' || c == '*' || c == '+') {
+                pos++;
+            } else if (c == '{') {
+                var close = regex.indexOf('}', pos);
+                pos = close < 0 || close >= end ? end : close + 1;
+            } else {
+                return;
+            }
+            // lazy or possessive modifier
+            if (pos < end && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) pos++;
+        }
+
+        private void breakRun() {
+            if (run.length() > 0 && (longest == null || run.length() > longest.length())) longest = run.toString();
+            run.setLength(0);
+        }
+
+        private boolean hasTopLevelAlternation() {
+            var depth = 0;
+            for (int i = pos; i < end; i++) {
+                var c = regex.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '[') {
+                    var close = classEnd(i);
+                    if (close < 0) return true;
+                    i = close;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '|' && depth == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the index of the parenthesis closing the group opened at {@code open}, or -1
+         */
+        private int groupEnd(int open) {
+            var depth = 0;
+            for (int i = open; i < end; i++) {
+                var c = regex.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '[') {
+                    var close = classEnd(i);
+                    if (close < 0) return -1;
+                    i = close;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the index of the bracket closing the character class opened at {@code open}, or -1
+         */
+        private int classEnd(int open) {
+            var i = open + 1;
+            if (i < end && regex.charAt(i) == '^') i++;
+            // a leading ']' is a literal
+            if (i < end && regex.charAt(i) == ']') i++;
+            var depth = 1;
+            for (; i < end; i++) {
+                var c = regex.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '[') {
+                    depth++;
+                } else if (c == ']' && --depth == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
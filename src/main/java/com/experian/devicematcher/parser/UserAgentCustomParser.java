@@ -13,6 +13,8 @@ import org.springframework.stereotype.Component;
 import ua_parser.Client;
 import ua_parser.Parser;
 
+import static com.experian.devicematcher.logging.RequestLog.REQUEST;
+
 @Component
 public class UserAgentCustomParser implements UserAgentParser {
     private static final Logger logger = LoggerFactory.getLogger(UserAgentCustomParser.class);
@@ -29,7 +31,7 @@ public class UserAgentCustomParser implements UserAgentParser {
     @Override
     public UserAgent parse(String userAgentString) throws UserAgentParsingException {
         try {
-            logger.info("Parsing User-Agent string: {}", userAgentString);
+            logger.info(REQUEST, "Parsing User-Agent string: {}", userAgentString);
             if (StringUtils.isBlank(userAgentString)) throw new IllegalArgumentException("User-Agent string is blank");
 
             Client client = uaParser.parse(userAgentString);
@@ -54,7 +56,7 @@ public class UserAgentCustomParser implements UserAgentParser {
         var major = client.os.major == null ? 0L : Long.parseLong(client.os.major);
         var minor = client.os.minor == null ? 0L : Long.parseLong(client.os.minor);
         var patch = client.os.patch == null ? 0L : Long.parseLong(client.os.patch);
-        return new SemVersion(major, minor, patch);
+        return SemVersion.of(major, minor, patch);
     }
 
     private String parseBrowserName(Client client) {
@@ -66,6 +68,6 @@ public class UserAgentCustomParser implements UserAgentParser {
         var major = client.userAgent.major == null ? 0L : Long.parseLong(client.userAgent.major);
         var minor = client.userAgent.minor == null ? 0L : Long.parseLong(client.userAgent.minor);
         var patch = client.userAgent.patch == null ? 0L : Long.parseLong(client.userAgent.patch);
-        return new SemVersion(major, minor, patch);
+        return SemVersion.of(major, minor, patch);
     }
 }
@@ -0,0 +1,230 @@
+package com.experian.devicematcher.parser;
+
+import com.experian.devicematcher.domain.SemVersion;
+import com.experian.devicematcher.domain.UserAgent;
+import com.experian.devicematcher.exceptions.UserAgentParsingException;
+
+/**
+ * Hand-written classifier for the User-Agent families that make up most of the traffic, in front of a regex based
+ * {@link UserAgentParser}.
+ * <p>
+ * Recognized strings must match one of these templates exactly, from the first to the last character:
+ * <ul>
+ *   <li>Chrome on Windows: {@code Mozilla/5.0 (Windows NT <nt>[; Win64; x64|; WOW64]) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/<a.b.c.d> Safari/537.36}</li>
+ *   <li>Chrome Mobile on Android: {@code Mozilla/5.0 (Linux; Android <v>; <model>) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/<a.b.c.d> Mobile Safari/537.36}</li>
+ *   <li>Mobile Safari on iPhone: {@code Mozilla/5.0 (iPhone; CPU iPhone OS <v> like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/<v> Mobile/<build> Safari/604.1}</li>
+ * </ul>
+ * They are scanned in place, without regexes or substrings, and yield the same names and versions as uap-java.
+ * Any deviation, such as an extra product token (Edg/, OPR/, in-app browsers) or a WebView marker, falls back to
+ * the delegate, so the fast path only has to be right for the strings it accepts.
+ */
+public class UserAgentFastPathParser implements UserAgentParser {
+    private static final String MOZILLA = "Mozilla/5.0 (";
+    private static final String WINDOWS_NT = "Windows NT ";
+    private static final String LINUX_ANDROID = "Linux; Android ";
+    private static final String IPHONE_OS = "iPhone; CPU iPhone OS ";
+
+    private static final String WIN64 = "; Win64; x64";
+    private static final String WOW64 = "; WOW64";
+    private static final String WEBKIT_CHROME = ") AppleWebKit/537.36 (KHTML, like Gecko) Chrome/";
+    private static final String SAFARI = " Safari/537.36";
+    private static final String MOBILE_SAFARI = " Mobile Safari/537.36";
+    private static final String IPHONE_WEBKIT_VERSION = " like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/";
+    private static final String IPHONE_MOBILE = " Mobile/";
+    private static final String IPHONE_SAFARI = " Safari/604.1";
+
+    private static final String WINDOWS = "windows";
+    private static final String ANDROID = "android";
+    private static final String IOS = "ios";
+    private static final String CHROME = "chrome";
+    private static final String CHROME_MOBILE = "chrome mobile";
+    private static final String MOBILE_SAFARI_FAMILY = "mobile safari";
+
+    // Windows NT kernel version -> marketing version, as mapped by uap-core
+    private static final SemVersion WINDOWS_10 = SemVersion.of(10, 0, 0);
+    private static final SemVersion WINDOWS_8_1 = SemVersion.of(8, 1, 0);
+    private static final SemVersion WINDOWS_8 = SemVersion.of(8, 0, 0);
+    private static final SemVersion WINDOWS_7 = SemVersion.of(7, 0, 0);
+
+    // longer numbers are left to the delegate rather than risking an overflow
+    private static final int MAX_DIGITS = 9;
+
+    private final UserAgentParser delegate;
+
+    public UserAgentFastPathParser(UserAgentParser delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public UserAgent parse(String userAgentString) throws UserAgentParsingException {
+        if (userAgentString != null) {
+            var userAgent = classify(userAgentString);
+            if (userAgent != null) return userAgent;
+        }
+        return delegate.parse(userAgentString);
+    }
+
+    /**
+     * @return the parsed User-Agent, or null if the string does not match any fast path template
+     */
+    static UserAgent classify(String userAgentString) {
+        if (!userAgentString.startsWith(MOZILLA)) return null;
+
+        var scanner = new Scanner(userAgentString, MOZILLA.length());
+        if (scanner.skip(WINDOWS_NT)) return chromeOnWindows(scanner);
+        if (scanner.skip(LINUX_ANDROID)) return chromeMobileOnAndroid(scanner);
+        if (scanner.skip(IPHONE_OS)) return mobileSafariOnIPhone(scanner);
+        return null;
+    }
+
+    private static UserAgent chromeOnWindows(Scanner scanner) {
+        var ntMajor = scanner.number();
+        if (ntMajor < 0 || !scanner.skip('.')) return null;
+        var ntMinor = scanner.number();
+        var osVersion = windowsVersion(ntMajor, ntMinor);
+        if (osVersion == null) return null;
+
+        if (!scanner.skip(WIN64)) scanner.skip(WOW64);
+        if (!scanner.skip(WEBKIT_CHROME)) return null;
+        var browserVersion = scanner.chromeVersion();
+        if (browserVersion == null || !scanner.skip(SAFARI) || !scanner.atEnd()) return null;
+
+        return new UserAgent(WINDOWS, osVersion, CHROME, browserVersion);
+    }
+
+    private static UserAgent chromeMobileOnAndroid(Scanner scanner) {
+        var osVersion = scanner.version('.');
+        if (osVersion == null || !scanner.skip(';') || !scanner.skip(' ') || !scanner.deviceModel()) return null;
+
+        if (!scanner.skip(WEBKIT_CHROME)) return null;
+        var browserVersion = scanner.chromeVersion();
+        if (browserVersion == null || !scanner.skip(MOBILE_SAFARI) || !scanner.atEnd()) return null;
+
+        return new UserAgent(ANDROID, osVersion, CHROME_MOBILE, browserVersion);
+    }
+
+    private static UserAgent mobileSafariOnIPhone(Scanner scanner) {
+        var osVersion = scanner.version('_');
+        if (osVersion == null || !scanner.skip(IPHONE_WEBKIT_VERSION)) return null;
+
+        var browserVersion = scanner.version('.');
+        if (browserVersion == null || !scanner.skip(IPHONE_MOBILE) || !scanner.alphanumeric()) return null;
+        if (!scanner.skip(IPHONE_SAFARI) || !scanner.atEnd()) return null;
+
+        return new UserAgent(IOS, osVersion, MOBILE_SAFARI_FAMILY, browserVersion);
+    }
+
+    private static SemVersion windowsVersion(long ntMajor, long ntMinor) {
+        if (ntMajor == 10 && ntMinor == 0) return WINDOWS_10;
+        if (ntMajor != 6) return null;
+        if (ntMinor == 3) return WINDOWS_8_1;
+        if (ntMinor == 2) return WINDOWS_8;
+        if (ntMinor == 1) return WINDOWS_7;
+        return null;
+    }
+
+    /**
+     * Forward-only cursor over the User-Agent string.
+     */
+    private static final class Scanner {
+        private final String s;
+        private int pos;
+
+        private Scanner(String s, int pos) {
+            this.s = s;
+            this.pos = pos;
+        }
+
+        boolean atEnd() {
+            return pos == s.length();
+        }
+
+        boolean skip(char c) {
+            if (pos < s.length() && s.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        boolean skip(String literal) {
+            if (s.startsWith(literal, pos)) {
+                pos += literal.length();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return the decimal number at the cursor, or -1 if there is none or it is too long
+         */
+        long number() {
+            var start = pos;
+            long value = 0;
+            while (pos < s.length()) {
+                var c = s.charAt(pos);
+                if (c < '0' || c > '9') break;
+                value = value * 10 + (c - '0');
+                pos++;
+            }
+            var digits = pos - start;
+            return digits == 0 || digits > MAX_DIGITS ? -1 : value;
+        }
+
+        /**
+         * Version of one to three numbers, e.g. {@code 12}, {@code 16_0} or {@code 8.1.0}.
+         */
+        SemVersion version(char separator) {
+            var major = number();
+            if (major < 0) return null;
+            long minor = 0;
+            long patch = 0;
+            if (skip(separator)) {
+                minor = number();
+                if (minor < 0) return null;
+                if (skip(separator)) {
+                    patch = number();
+                    if (patch < 0) return null;
+                }
+            }
+            return SemVersion.of(major, minor, patch);
+        }
+
+        /**
+         * Chrome version, always four numbers of which the last is ignored, e.g. {@code 116.0.5845.110}.
+         */
+        SemVersion chromeVersion() {
+            var major = number();
+            if (major < 0 || !skip('.')) return null;
+            var minor = number();
+            if (minor < 0 || !skip('.')) return null;
+            var patch = number();
+            if (patch < 0 || !skip('.') || number() < 0) return null;
+            return SemVersion.of(major, minor, patch);
+        }
+
+        /**
+         * Android device model up to, not including, the closing parenthesis. Restricted to plain model names:
+         * anything that could carry a marker, such as "wv" (WebView) or "Build/", is rejected.
+         */
+        boolean deviceModel() {
+            var start = pos;
+            while (pos < s.length()) {
+                var c = s.charAt(pos);
+                var plain = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == ' ' || c == '-' || c == '_' || c == '.' || c == '+';
+                if (!plain) break;
+                pos++;
+            }
+            var length = pos - start;
+            if (length == 0 || s.charAt(start) == ' ' || s.charAt(pos - 1) == ' ') return false;
+            return !(length == 2 && s.startsWith("wv", start));
+        }
+
+        boolean alphanumeric() {
+            var start = pos;
+            while (pos < s.length() && Character.isLetterOrDigit(s.charAt(pos)) && s.charAt(pos) < 128) pos++;
+            return pos > start;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.experian.devicematcher.repository;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.UserAgent;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link DeviceProfileRepository}.
+ * Methods return immediately, and the returned futures complete once the database has answered, so no thread
+ * waits on network I/O. Futures may complete on I/O threads: dependent stages must not block.
+ */
+public interface AsyncDeviceProfileRepository {
+    /**
+     * Finds a device profile by its ID.
+     *
+     * @param deviceId The ID of the device to be found.
+     * @return A future of the device profile if found, or an empty Optional if not found.
+     */
+    CompletableFuture<Optional<DeviceProfile>> findDeviceProfileById(String deviceId);
+
+    /**
+     * Finds all device profiles that match the given OS name.
+     *
+     * @param osName The OS name to match.
+     * @return A future of the device profiles that match the OS name.
+     */
+    CompletableFuture<List<DeviceProfile>> findDeviceProfilesByOSName(String osName);
+
+    /**
+     * Deletes a device profile by its ID.
+     *
+     * @param deviceId The ID of the device to be deleted.
+     * @return A future completed once the device profile is deleted.
+     */
+    CompletableFuture<Void> deleteDeviceProfileById(String deviceId);
+
+    /**
+     * Finds the device profile that matches the given user agent, creating it when absent, and increments its hit count.
+     *
+     * @param userAgent  The user agent to match.
+     * @param idSupplier Supplies the ID of the device profile if it has to be created.
+     * @return A future of the matched device profile with its updated hit count, and whether it was created.
+     * @see DeviceProfileRepository#matchDeviceProfile(UserAgent, long, Supplier)
+     */
+    CompletableFuture<DeviceProfileMatch> matchDeviceProfile(UserAgent userAgent, Supplier<String> idSupplier);
+}
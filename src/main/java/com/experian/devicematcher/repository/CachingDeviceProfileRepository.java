@@ -0,0 +1,179 @@
+package com.experian.devicematcher.repository;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileGroupBy;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.DeviceProfilePage;
+import com.experian.devicematcher.domain.DeviceProfileQuery;
+import com.experian.devicematcher.domain.DeviceProfileStats;
+import com.experian.devicematcher.domain.UserAgent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through near-cache in front of a {@link DeviceProfileRepository}.
+ * Device profiles are cached by deviceId. Entries expire after a fixed TTL and the cache is bounded by size.
+ * User-Agents are not mapped to their deviceId: a match always goes to the delegate, which counts its hits.
+ * <p>
+ * Hit counts served from the cache are stale-tolerant: a cached profile is refreshed by every match and increment
+ * going through this instance, but increments made by other instances are only visible once the entry expires.
+ * Deletes and persists invalidate the cached entries, imports empty the cache. Missing devices are never cached.
+ * A device read or matched through the delegate is only cached if no invalidation happened during the call, so a
+ * call racing with a delete or persist cannot cache the profile they removed.
+ */
+public class CachingDeviceProfileRepository implements DeviceProfileRepository {
+    private static final Logger logger = LoggerFactory.getLogger(CachingDeviceProfileRepository.class);
+
+    private final DeviceProfileRepository delegate;
+    private final Cache<String, DeviceProfile> devicesById;
+    // incremented before the entries are invalidated, see cacheRead
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CachingDeviceProfileRepository(DeviceProfileRepository delegate, Duration ttl, long maximumSize) {
+        this.delegate = delegate;
+        this.devicesById = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+        logger.info("Device profile near-cache enabled | ttl={} maximumSize={}", ttl, maximumSize);
+    }
+
+    @Override
+    public Optional<DeviceProfile> findDeviceProfileById(String deviceId) {
+        // not devicesById.get(id, loader): the loader would run the database read inside a map bin lock,
+        // blocking other keys of the bin and pinning virtual threads
+        var cached = devicesById.getIfPresent(deviceId);
+        if (cached != null) return Optional.of(cached);
+
+        var invalidation = invalidations.get();
+        var device = delegate.findDeviceProfileById(deviceId);
+        device.ifPresent(d -> cacheRead(d, invalidation));
+        return device;
+    }
+
+    @Override
+    public List<DeviceProfile> findDeviceProfiles(UserAgent userAgent) {
+        var invalidation = invalidations.get();
+        var devices = delegate.findDeviceProfiles(userAgent);
+        devices.stream().findFirst().ifPresent(device -> cacheRead(device, invalidation));
+        return devices;
+    }
+
+    @Override
+    public List<DeviceProfile> findDeviceProfilesByOSName(String osName) {
+        return delegate.findDeviceProfilesByOSName(osName);
+    }
+
+    @Override
+    public DeviceProfilePage findDeviceProfilesByOSName(String osName, int pageSize, String cursor) {
+        return delegate.findDeviceProfilesByOSName(osName, pageSize, cursor);
+    }
+
+    @Override
+    public DeviceProfilePage findDeviceProfiles(DeviceProfileQuery query, int pageSize, String cursor) {
+        return delegate.findDeviceProfiles(query, pageSize, cursor);
+    }
+
+    @Override
+    public void streamDeviceProfilesByOSName(String osName, Consumer<DeviceProfile> consumer) {
+        delegate.streamDeviceProfilesByOSName(osName, consumer);
+    }
+
+    /**
+     * Empties the cache once the import is done: imported devices may replace any cached one.
+     */
+    @Override
+    public long importDeviceProfiles(Iterator<DeviceProfile> devices) {
+        try {
+            return delegate.importDeviceProfiles(devices);
+        } finally {
+            invalidations.incrementAndGet();
+            devicesById.invalidateAll();
+        }
+    }
+
+    @Override
+    public long exportDeviceProfiles(Consumer<DeviceProfile> consumer) {
+        return delegate.exportDeviceProfiles(consumer);
+    }
+
+    @Override
+    public DeviceProfileStats aggregateDeviceProfiles(DeviceProfileGroupBy groupBy, String osName) {
+        return delegate.aggregateDeviceProfiles(groupBy, osName);
+    }
+
+    @Override
+    public void deleteDeviceProfileById(String deviceId) {
+        delegate.deleteDeviceProfileById(deviceId);
+        invalidate(deviceId);
+    }
+
+    @Override
+    public void persistDeviceProfile(DeviceProfile device) {
+        delegate.persistDeviceProfile(device);
+        invalidate(device.deviceId());
+    }
+
+    @Override
+    public long incrementHitCount(String deviceId) {
+        var hitCount = delegate.incrementHitCount(deviceId);
+        devicesById.asMap().computeIfPresent(deviceId, (id, device) -> device.withHitCount(hitCount));
+        return hitCount;
+    }
+
+    @Override
+    public DeviceProfileMatch matchDeviceProfile(UserAgent userAgent, long hits, Supplier<String> idSupplier) {
+        var invalidation = invalidations.get();
+        var match = delegate.matchDeviceProfile(userAgent, hits, idSupplier);
+        cacheRead(match.device(), invalidation);
+        return match;
+    }
+
+    @Override
+    public Map<UserAgent, DeviceProfileMatch> matchDeviceProfiles(Map<UserAgent, Long> hitsByUserAgent, Function<UserAgent, String> idGenerator) {
+        var invalidation = invalidations.get();
+        var matches = delegate.matchDeviceProfiles(hitsByUserAgent, idGenerator);
+        matches.values().forEach(match -> cacheRead(match.device(), invalidation));
+        return matches;
+    }
+
+    /**
+     * Registers the metrics of the cache, named "device-profiles-by-id".
+     */
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, devicesById, "device-profiles-by-id");
+    }
+
+    /**
+     * Caches a device read from the delegate, unless an invalidation started since the read did. The check and the
+     * put are atomic for the key, so an invalidation either skips the put or runs after it and removes the entry.
+     */
+    private void cacheRead(DeviceProfile device, long invalidation) {
+        devicesById.asMap().compute(device.deviceId(), (id, current) -> invalidations.get() == invalidation ? device : current);
+    }
+
+    private void invalidate(String deviceId) {
+        invalidations.incrementAndGet();
+        devicesById.invalidate(deviceId);
+    }
+
+    Cache<String, DeviceProfile> devicesById() {
+        return devicesById;
+    }
+}
@@ -1,10 +1,20 @@
 package com.experian.devicematcher.repository;
 
 import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileGroupBy;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.DeviceProfilePage;
+import com.experian.devicematcher.domain.DeviceProfileQuery;
+import com.experian.devicematcher.domain.DeviceProfileStats;
 import com.experian.devicematcher.domain.UserAgent;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Repository interface for managing device profiles.
@@ -39,6 +49,68 @@ public interface DeviceProfileRepository {
      */
     List<DeviceProfile> findDeviceProfilesByOSName(String osName);
 
+    /**
+     * Finds one page of the device profiles that match the given OS name.
+     * Pass the cursor of the previous page to continue where it stopped, or null to start from the beginning.
+     *
+     * @param osName   The OS name to match.
+     * @param pageSize The maximum number of device profiles of the page.
+     * @param cursor   The cursor returned with the previous page, or null for the first page.
+     * @return A page of device profiles and the cursor of the next page.
+     * @throws IllegalArgumentException if the cursor is invalid.
+     */
+    DeviceProfilePage findDeviceProfilesByOSName(String osName, int pageSize, String cursor);
+
+    /**
+     * Finds one page of the device profiles that match all criteria of the query.
+     * Pass the cursor of the previous page to continue where it stopped, or null to start from the beginning.
+     *
+     * @param query    The search criteria.
+     * @param pageSize The maximum number of device profiles of the page.
+     * @param cursor   The cursor returned with the previous page, or null for the first page.
+     * @return A page of device profiles and the cursor of the next page.
+     * @throws IllegalArgumentException if the cursor is invalid.
+     */
+    DeviceProfilePage findDeviceProfiles(DeviceProfileQuery query, int pageSize, String cursor);
+
+    /**
+     * Streams all device profiles that match the given OS name to the consumer as they are read,
+     * without holding them in memory.
+     *
+     * @param osName   The OS name to match.
+     * @param consumer Receives every matching device profile.
+     */
+    void streamDeviceProfilesByOSName(String osName, Consumer<DeviceProfile> consumer);
+
+    /**
+     * Writes device profiles in bulk, creating them or overwriting the stored ones, hit counts included.
+     * Devices are pulled from the iterator only as fast as they are written, so imports of any size run in
+     * bounded memory. Writes are idempotent: an import that failed half-way can be run again.
+     *
+     * @param devices The device profiles to write.
+     * @return The number of device profiles written.
+     */
+    long importDeviceProfiles(Iterator<DeviceProfile> devices);
+
+    /**
+     * Streams every device profile to the consumer as they are read, in no particular order, without holding them
+     * in memory. The consumer is only called from the calling thread.
+     *
+     * @param consumer Receives every device profile.
+     * @return The number of device profiles exported.
+     */
+    long exportDeviceProfiles(Consumer<DeviceProfile> consumer);
+
+    /**
+     * Counts the device profiles and sums their hit counts per value of a User-Agent property, optionally for one
+     * OS only. Implementations should aggregate where the device profiles are stored and only return the totals.
+     *
+     * @param groupBy The User-Agent property to group the device profiles by.
+     * @param osName  The OS name to match, or null for all device profiles.
+     * @return The totals of each group.
+     */
+    DeviceProfileStats aggregateDeviceProfiles(DeviceProfileGroupBy groupBy, String osName);
+
     /**
      * Finds a device profile by its ID.
      *
@@ -61,4 +133,27 @@ public interface DeviceProfileRepository {
      * @return The new hit count for the device.
      */
     long incrementHitCount(String deviceId);
+
+    /**
+     * Finds the device profile that matches the given user agent, creating it when absent, and adds hits to its hit
+     * count. Implementations should do it in as few round trips as possible and must not create duplicate profiles
+     * when concurrent first-time matches race. The hits are counted like those of a single request, so a hot device
+     * matched with coalesced hits is handled like one matched by as many requests.
+     *
+     * @param userAgent  The user agent to match.
+     * @param hits       The number of hits to add, one per request matched.
+     * @param idSupplier Supplies the ID of the device profile if it has to be created.
+     * @return The matched device profile with its updated hit count, and whether it was created.
+     */
+    DeviceProfileMatch matchDeviceProfile(UserAgent userAgent, long hits, Supplier<String> idSupplier);
+
+    /**
+     * Matches several user agents at once, creating the missing device profiles and adding the given number of hits
+     * to each of them. Implementations should resolve the whole batch in as few round trips as possible.
+     *
+     * @param hitsByUserAgent The hits to add to the device profile of each distinct user agent.
+     * @param idGenerator     Generates the ID of a device profile if it has to be created.
+     * @return The match of each user agent, with the hit count after all its hits were added.
+     */
+    Map<UserAgent, DeviceProfileMatch> matchDeviceProfiles(Map<UserAgent, Long> hitsByUserAgent, Function<UserAgent, String> idGenerator);
 }
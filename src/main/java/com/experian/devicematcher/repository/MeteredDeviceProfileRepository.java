@@ -0,0 +1,130 @@
+package com.experian.devicematcher.repository;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileGroupBy;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.DeviceProfilePage;
+import com.experian.devicematcher.domain.DeviceProfileQuery;
+import com.experian.devicematcher.domain.DeviceProfileStats;
+import com.experian.devicematcher.domain.UserAgent;
+import com.experian.devicematcher.metrics.OperationTimer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Decorator that times every call of a {@link DeviceProfileRepository} ({@code devicematcher.repository}) and
+ * counts match outcomes ({@code devicematcher.repository.matches}, tagged existing or created).
+ * Failures are tagged with the error code given by the classifier of the underlying database.
+ */
+public class MeteredDeviceProfileRepository implements DeviceProfileRepository {
+    public static final String TIMER = "devicematcher.repository";
+    public static final String MATCHES = "devicematcher.repository.matches";
+
+    private final DeviceProfileRepository delegate;
+    private final OperationTimer timer;
+    private final Counter existingMatches;
+    private final Counter createdMatches;
+
+    public MeteredDeviceProfileRepository(DeviceProfileRepository delegate, MeterRegistry registry, Function<Throwable, String> errorCode) {
+        this.delegate = delegate;
+        this.timer = new OperationTimer(registry, TIMER, "Device profile repository calls", errorCode);
+        this.existingMatches = matchCounter(registry, "existing");
+        this.createdMatches = matchCounter(registry, "created");
+    }
+
+    @Override
+    public Optional<DeviceProfile> findDeviceProfileById(String deviceId) {
+        return timer.record("findDeviceProfileById", () -> delegate.findDeviceProfileById(deviceId));
+    }
+
+    @Override
+    public List<DeviceProfile> findDeviceProfiles(UserAgent userAgent) {
+        return timer.record("findDeviceProfiles", () -> delegate.findDeviceProfiles(userAgent));
+    }
+
+    @Override
+    public List<DeviceProfile> findDeviceProfilesByOSName(String osName) {
+        return timer.record("findDeviceProfilesByOSName", () -> delegate.findDeviceProfilesByOSName(osName));
+    }
+
+    @Override
+    public DeviceProfilePage findDeviceProfilesByOSName(String osName, int pageSize, String cursor) {
+        return timer.record("findDeviceProfilesPageByOSName", () -> delegate.findDeviceProfilesByOSName(osName, pageSize, cursor));
+    }
+
+    @Override
+    public DeviceProfilePage findDeviceProfiles(DeviceProfileQuery query, int pageSize, String cursor) {
+        return timer.record("searchDeviceProfiles", () -> delegate.findDeviceProfiles(query, pageSize, cursor));
+    }
+
+    @Override
+    public void streamDeviceProfilesByOSName(String osName, Consumer<DeviceProfile> consumer) {
+        // includes the time spent by the consumer writing the response
+        timer.run("streamDeviceProfilesByOSName", () -> delegate.streamDeviceProfilesByOSName(osName, consumer));
+    }
+
+    @Override
+    public long importDeviceProfiles(Iterator<DeviceProfile> devices) {
+        // includes the time spent reading the devices from the request
+        return timer.record("importDeviceProfiles", () -> delegate.importDeviceProfiles(devices));
+    }
+
+    @Override
+    public long exportDeviceProfiles(Consumer<DeviceProfile> consumer) {
+        // includes the time spent by the consumer writing the response
+        return timer.record("exportDeviceProfiles", () -> delegate.exportDeviceProfiles(consumer));
+    }
+
+    @Override
+    public DeviceProfileStats aggregateDeviceProfiles(DeviceProfileGroupBy groupBy, String osName) {
+        return timer.record("aggregateDeviceProfiles", () -> delegate.aggregateDeviceProfiles(groupBy, osName));
+    }
+
+    @Override
+    public void deleteDeviceProfileById(String deviceId) {
+        timer.run("deleteDeviceProfileById", () -> delegate.deleteDeviceProfileById(deviceId));
+    }
+
+    @Override
+    public void persistDeviceProfile(DeviceProfile device) {
+        timer.run("persistDeviceProfile", () -> delegate.persistDeviceProfile(device));
+    }
+
+    @Override
+    public long incrementHitCount(String deviceId) {
+        return timer.record("incrementHitCount", () -> delegate.incrementHitCount(deviceId));
+    }
+
+    @Override
+    public DeviceProfileMatch matchDeviceProfile(UserAgent userAgent, long hits, Supplier<String> idSupplier) {
+        var match = timer.record("matchDeviceProfile", () -> delegate.matchDeviceProfile(userAgent, hits, idSupplier));
+        countMatch(match);
+        return match;
+    }
+
+    @Override
+    public Map<UserAgent, DeviceProfileMatch> matchDeviceProfiles(Map<UserAgent, Long> hitsByUserAgent, Function<UserAgent, String> idGenerator) {
+        var matches = timer.record("matchDeviceProfiles", () -> delegate.matchDeviceProfiles(hitsByUserAgent, idGenerator));
+        matches.values().forEach(this::countMatch);
+        return matches;
+    }
+
+    private void countMatch(DeviceProfileMatch match) {
+        (match.created() ? createdMatches : existingMatches).increment();
+    }
+
+    private static Counter matchCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder(MATCHES)
+            .description("Device profile matches by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.experian.devicematcher.service;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.exceptions.DeviceProfileException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link DeviceProfileService}.
+ * Errors are reported by completing the returned future exceptionally with a {@link DeviceProfileException}.
+ */
+public interface DeviceProfileAsyncService {
+    /**
+     * Get a device profile by ID
+     *
+     * @param deviceId The ID of the device to be found
+     * @return A future of the device profile, empty if not found
+     */
+    CompletableFuture<Optional<DeviceProfile>> getDeviceById(String deviceId);
+
+    /**
+     * Match a device profile based on the user agent string
+     *
+     * @param userAgentString The user agent string to match
+     * @return A future of the device profile that matches the user agent string
+     */
+    CompletableFuture<DeviceProfile> matchDevice(String userAgentString);
+
+    /**
+     * Get a list of device profiles that match the given OS name
+     *
+     * @param osName The OS name to match
+     * @return A future of the device profiles that match the OS name
+     */
+    CompletableFuture<List<DeviceProfile>> getDevicesByOS(String osName);
+
+    /**
+     * Delete a device profile by ID
+     *
+     * @param deviceId The ID of the device to be deleted
+     * @return A future completed once the device profile is deleted
+     */
+    CompletableFuture<Void> deleteDeviceById(String deviceId);
+}
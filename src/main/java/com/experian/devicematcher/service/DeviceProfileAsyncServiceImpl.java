@@ -0,0 +1,118 @@
+package com.experian.devicematcher.service;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileIdGenerator;
+import com.experian.devicematcher.exceptions.DeviceProfileDeleteException;
+import com.experian.devicematcher.exceptions.DeviceProfileException;
+import com.experian.devicematcher.exceptions.DeviceProfileMatchException;
+import com.experian.devicematcher.parser.UserAgentParser;
+import com.experian.devicematcher.repository.AsyncDeviceProfileRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static com.experian.devicematcher.logging.RequestLog.REQUEST;
+import static java.util.Objects.requireNonNull;
+
+@Service
+@ConditionalOnProperty(name = "aerospike.async.enabled", havingValue = "true")
+public class DeviceProfileAsyncServiceImpl implements DeviceProfileAsyncService {
+    private static final Logger logger = LoggerFactory.getLogger(DeviceProfileAsyncServiceImpl.class);
+
+    private final DeviceProfileIdGenerator deviceProfileIdGenerator;
+    private final UserAgentParser userAgentParser;
+    private final AsyncDeviceProfileRepository repository;
+
+    @Autowired
+    public DeviceProfileAsyncServiceImpl(DeviceProfileIdGenerator deviceProfileIdGenerator, UserAgentParser userAgentParser, AsyncDeviceProfileRepository repository) {
+        this.deviceProfileIdGenerator = deviceProfileIdGenerator;
+        this.userAgentParser = userAgentParser;
+        this.repository = repository;
+    }
+
+    @Override
+    public CompletableFuture<Optional<DeviceProfile>> getDeviceById(String deviceId) {
+        return wrap(DeviceProfileException::new, () -> {
+            logger.info(REQUEST, "Getting Device By ID async | deviceId={}", deviceId);
+
+            requireNonNull(deviceId, "Device ID cannot be null");
+            if (deviceId.isBlank()) throw new IllegalArgumentException("Device ID cannot be blank");
+
+            return repository.findDeviceProfileById(deviceId);
+        });
+    }
+
+    @Override
+    public CompletableFuture<DeviceProfile> matchDevice(String userAgentString) {
+        return wrap(DeviceProfileMatchException::new, () -> {
+            logger.info(REQUEST, "Matching Device by User-Agent async | userAgent={}", userAgentString);
+
+            requireNonNull(userAgentString, "User-Agent cannot be null");
+            if (userAgentString.isBlank()) throw new IllegalArgumentException("User-Agent cannot be blank");
+
+            // parsing is CPU bound and stays on the calling thread, only the database calls are asynchronous
+            var userAgent = userAgentParser.parse(userAgentString);
+
+            return repository.matchDeviceProfile(userAgent, () -> deviceProfileIdGenerator.newId(userAgent))
+                .thenApply(match -> {
+                    logger.debug("Device matched | deviceId={} created={}", match.device().deviceId(), match.created());
+                    return match.device();
+                });
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<DeviceProfile>> getDevicesByOS(String osName) {
+        return wrap(DeviceProfileException::new, () -> {
+            logger.info(REQUEST, "Getting Device By OS name async | osName={}", osName);
+            requireNonNull(osName, "OS Name cannot be null");
+            if (osName.isBlank()) throw new IllegalArgumentException("OS Name cannot be blank");
+
+            return repository.findDeviceProfilesByOSName(osName.toLowerCase());
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteDeviceById(String deviceId) {
+        return wrap(DeviceProfileDeleteException::new, () -> {
+            logger.info(REQUEST, "Deleting Device By ID async | deviceId={}", deviceId);
+            requireNonNull(deviceId, "Device ID cannot be null");
+            if (deviceId.isBlank()) throw new IllegalArgumentException("Device ID cannot be blank");
+
+            return repository.deleteDeviceProfileById(deviceId);
+        });
+    }
+
+    /**
+     * Runs the call and maps any failure, thrown or completed, to the service exception of the operation,
+     * the same way the synchronous service wraps its exceptions.
+     */
+    private static <T> CompletableFuture<T> wrap(Function<Throwable, DeviceProfileException> exception, AsyncCall<T> call) {
+        CompletableFuture<T> future;
+        try {
+            future = call.run();
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(exception.apply(ex));
+        }
+
+        return future.handle((value, ex) -> {
+            if (ex == null) return value;
+            var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            throw new CompletionException(exception.apply(cause));
+        });
+    }
+
+    @FunctionalInterface
+    private interface AsyncCall<T> {
+        CompletableFuture<T> run() throws Exception;
+    }
+}
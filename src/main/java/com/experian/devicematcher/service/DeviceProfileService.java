@@ -1,10 +1,17 @@
 package com.experian.devicematcher.service;
 
 import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileGroupBy;
+import com.experian.devicematcher.domain.DeviceProfilePage;
+import com.experian.devicematcher.domain.DeviceProfileQuery;
+import com.experian.devicematcher.domain.DeviceProfileStats;
 import com.experian.devicematcher.exceptions.DeviceProfileException;
+import com.experian.devicematcher.exceptions.DeviceProfileImportException;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 
 public interface DeviceProfileService {
@@ -27,6 +34,17 @@ public interface DeviceProfileService {
      */
     DeviceProfile matchDevice(String userAgentString) throws DeviceProfileException;
 
+    /**
+     * Match the device profiles of several user agent strings at once.
+     * Identical strings are parsed once and the hits of each device are added together, so every occurrence of a
+     * device in the result carries its hit count after the whole batch.
+     *
+     * @param userAgentStrings The user agent strings to match
+     * @return The matched device profiles, in the order of the user agent strings
+     * @throws DeviceProfileException if an error occurs while matching the device profiles
+     */
+    List<DeviceProfile> matchDevices(List<String> userAgentStrings) throws DeviceProfileException;
+
     /**
      * Get a list of device profiles that match the given OS name
      *
@@ -37,6 +55,69 @@ public interface DeviceProfileService {
      */
     List<DeviceProfile> getDevicesByOS(String osName) throws DeviceProfileException;
 
+    /**
+     * Get one page of the device profiles that match the given OS name
+     *
+     * @param osName   The OS name to match
+     * @param pageSize The maximum number of device profiles of the page
+     * @param cursor   The cursor returned with the previous page, or null for the first page
+     * @return A page of device profiles and the cursor of the next page, if any
+     * @throws DeviceProfileException if an error occurs while retrieving the device profiles by OS name
+     */
+    DeviceProfilePage getDevicesByOS(String osName, int pageSize, String cursor) throws DeviceProfileException;
+
+    /**
+     * Get one page of the device profiles that match all criteria of the query
+     * Example: browserName "chrome" with browserVersionMin "120.0.0"
+     *
+     * @param query    The search criteria
+     * @param pageSize The maximum number of device profiles of the page
+     * @param cursor   The cursor returned with the previous page, or null for the first page
+     * @return A page of device profiles and the cursor of the next page, if any
+     * @throws DeviceProfileException if the query or cursor is invalid, or an error occurs while searching
+     */
+    DeviceProfilePage searchDevices(DeviceProfileQuery query, int pageSize, String cursor) throws DeviceProfileException;
+
+    /**
+     * Stream all device profiles that match the given OS name to the consumer, one at a time
+     *
+     * @param osName   The OS name to match
+     * @param consumer Receives every matching device profile
+     * @throws DeviceProfileException if an error occurs while streaming the device profiles by OS name
+     */
+    void streamDevicesByOS(String osName, Consumer<DeviceProfile> consumer) throws DeviceProfileException;
+
+    /**
+     * Import device profiles in bulk, creating them or overwriting the stored ones, hit counts included
+     * Devices are read from the iterator as they are written, so the import runs in bounded memory
+     *
+     * @param devices The device profiles to import
+     * @return The number of device profiles imported
+     * @throws DeviceProfileImportException if a device profile is invalid or cannot be read
+     * @throws DeviceProfileException if an error occurs while writing the device profiles
+     */
+    long importDevices(Iterator<DeviceProfile> devices) throws DeviceProfileException;
+
+    /**
+     * Export all device profiles to the consumer, one at a time, in no particular order
+     *
+     * @param consumer Receives every device profile
+     * @return The number of device profiles exported
+     * @throws DeviceProfileException if an error occurs while reading the device profiles
+     */
+    long exportDevices(Consumer<DeviceProfile> consumer) throws DeviceProfileException;
+
+    /**
+     * Get the number of device profiles and the sum of their hit counts per value of a User-Agent property
+     * Example: hits per browserName on "android"
+     *
+     * @param groupBy The User-Agent property to group the device profiles by
+     * @param osName  The OS name to match, or null for all device profiles
+     * @return The totals of each group, by descending hits
+     * @throws DeviceProfileException if an error occurs while aggregating the device profiles
+     */
+    DeviceProfileStats getDeviceStats(DeviceProfileGroupBy groupBy, String osName) throws DeviceProfileException;
+
     /**
      * Delete a device profile by ID
      *
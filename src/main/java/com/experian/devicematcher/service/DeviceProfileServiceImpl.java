@@ -2,9 +2,17 @@ package com.experian.devicematcher.service;
 
 import com.experian.devicematcher.domain.DeviceProfileIdGenerator;
 import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.DeviceProfileGroupBy;
+import com.experian.devicematcher.domain.DeviceProfilePage;
+import com.experian.devicematcher.domain.DeviceProfileQuery;
+import com.experian.devicematcher.domain.DeviceProfileStats;
+import com.experian.devicematcher.domain.UserAgent;
 import com.experian.devicematcher.exceptions.DeviceProfileDeleteException;
 import com.experian.devicematcher.exceptions.DeviceProfileException;
+import com.experian.devicematcher.exceptions.DeviceProfileImportException;
 import com.experian.devicematcher.exceptions.DeviceProfileMatchException;
+import com.experian.devicematcher.exceptions.DeviceProfileQueryException;
 import com.experian.devicematcher.parser.UserAgentParser;
 import com.experian.devicematcher.repository.DeviceProfileRepository;
 import org.slf4j.Logger;
@@ -12,9 +20,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static com.experian.devicematcher.logging.RequestLog.REQUEST;
 import static java.util.Objects.requireNonNull;
 
 @Service
@@ -24,6 +38,7 @@ public class DeviceProfileServiceImpl implements DeviceProfileService {
     private final DeviceProfileIdGenerator deviceProfileIdGenerator;
     private final UserAgentParser userAgentParser;
     private final DeviceProfileRepository repository;
+    private final MatchSingleFlight matchSingleFlight = new MatchSingleFlight();
 
     @Autowired
     public DeviceProfileServiceImpl(DeviceProfileIdGenerator deviceProfileIdGenerator, UserAgentParser userAgentParser, DeviceProfileRepository repository) {
@@ -35,7 +50,7 @@ public class DeviceProfileServiceImpl implements DeviceProfileService {
     @Override
     public Optional<DeviceProfile> getDeviceById(String deviceId) throws DeviceProfileException {
         try {
-            logger.info("Getting Device By ID | deviceId={}", deviceId);
+            logger.info(REQUEST, "Getting Device By ID | deviceId={}", deviceId);
 
             requireNonNull(deviceId, "Device ID cannot be null");
             if (deviceId.isBlank()) throw new IllegalArgumentException("Device ID cannot be blank");
@@ -49,22 +64,54 @@ public class DeviceProfileServiceImpl implements DeviceProfileService {
     @Override
     public DeviceProfile matchDevice(String userAgentString) throws DeviceProfileException {
         try {
-            logger.info("Matching Device by User-Agent | userAgent={}", userAgentString);
+            logger.info(REQUEST, "Matching Device by User-Agent | userAgent={}", userAgentString);
 
             requireNonNull(userAgentString, "User-Agent cannot be null");
             if (userAgentString.isBlank()) throw new IllegalArgumentException("User-Agent cannot be blank");
 
             var userAgent = userAgentParser.parse(userAgentString);
 
-            var device = repository.findDeviceProfiles(userAgent).stream()
-                    .findFirst().orElseGet(() -> {
-                        var d = DeviceProfile.from(() -> deviceProfileIdGenerator.newId(userAgent), userAgent);
-                        repository.persistDeviceProfile(d);
-                        return d;
-                    });
+            // concurrent matches of the same tuple share one repository call, which adds all their hits
+            var match = matchSingleFlight.match(userAgent, this::matchDeviceProfile);
+            logger.debug("Device matched | deviceId={} created={}", match.device().deviceId(), match.created());
+            return match.device();
+        } catch (Exception ex) {
+            throw new DeviceProfileMatchException(ex);
+        }
+    }
 
-            long hitCount = repository.incrementHitCount(device.deviceId());
-            return device.withHitCount(hitCount);
+    private DeviceProfileMatch matchDeviceProfile(UserAgent userAgent, long hits) {
+        // coalesced hits take the single-record path too, which is the one that shards hot devices
+        return repository.matchDeviceProfile(userAgent, hits, () -> deviceProfileIdGenerator.newId(userAgent));
+    }
+
+    @Override
+    public List<DeviceProfile> matchDevices(List<String> userAgentStrings) throws DeviceProfileException {
+        try {
+            logger.info(REQUEST, "Matching Devices by User-Agent batch | size={}", userAgentStrings == null ? 0 : userAgentStrings.size());
+
+            requireNonNull(userAgentStrings, "User-Agents cannot be null");
+            if (userAgentStrings.isEmpty()) return List.of();
+
+            var parsed = new HashMap<String, UserAgent>();
+            var hitsByUserAgent = new LinkedHashMap<UserAgent, Long>();
+            for (var userAgentString : userAgentStrings) {
+                requireNonNull(userAgentString, "User-Agent cannot be null");
+                if (userAgentString.isBlank()) throw new IllegalArgumentException("User-Agent cannot be blank");
+
+                var userAgent = parsed.get(userAgentString);
+                if (userAgent == null) {
+                    userAgent = userAgentParser.parse(userAgentString);
+                    parsed.put(userAgentString, userAgent);
+                }
+                hitsByUserAgent.merge(userAgent, 1L, Long::sum);
+            }
+
+            var matches = repository.matchDeviceProfiles(hitsByUserAgent, deviceProfileIdGenerator::newId);
+            logger.debug("Devices matched | userAgents={} devices={}", userAgentStrings.size(), matches.size());
+            return userAgentStrings.stream()
+                .map(userAgentString -> matches.get(parsed.get(userAgentString)).device())
+                .toList();
         } catch (Exception ex) {
             throw new DeviceProfileMatchException(ex);
         }
@@ -73,7 +120,7 @@ public class DeviceProfileServiceImpl implements DeviceProfileService {
     @Override
     public List<DeviceProfile> getDevicesByOS(String osName) throws DeviceProfileException {
         try {
-            logger.info("Getting Device By OS name | osName={}", osName);
+            logger.info(REQUEST, "Getting Device By OS name | osName={}", osName);
             requireNonNull(osName, "OS Name cannot be null");
             if (osName.isBlank()) throw new IllegalArgumentException("OS Name cannot be blank");
 
@@ -83,10 +130,98 @@ public class DeviceProfileServiceImpl implements DeviceProfileService {
         }
     }
 
+    @Override
+    public DeviceProfilePage getDevicesByOS(String osName, int pageSize, String cursor) throws DeviceProfileException {
+        try {
+            logger.info(REQUEST, "Getting Device Page By OS name | osName={} pageSize={}", osName, pageSize);
+            requireNonNull(osName, "OS Name cannot be null");
+            if (osName.isBlank()) throw new IllegalArgumentException("OS Name cannot be blank");
+            if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
+            if (cursor != null && cursor.isBlank()) cursor = null;
+
+            return repository.findDeviceProfilesByOSName(osName.toLowerCase(), pageSize, cursor);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new DeviceProfileQueryException(ex);
+        } catch (Exception ex) {
+            throw new DeviceProfileException(ex);
+        }
+    }
+
+    @Override
+    public DeviceProfilePage searchDevices(DeviceProfileQuery query, int pageSize, String cursor) throws DeviceProfileException {
+        try {
+            logger.info(REQUEST, "Searching Devices | query={} pageSize={}", query, pageSize);
+            requireNonNull(query, "Query cannot be null");
+            if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
+            if (cursor != null && cursor.isBlank()) cursor = null;
+
+            return repository.findDeviceProfiles(query, pageSize, cursor);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new DeviceProfileQueryException(ex);
+        } catch (Exception ex) {
+            throw new DeviceProfileException(ex);
+        }
+    }
+
+    @Override
+    public void streamDevicesByOS(String osName, Consumer<DeviceProfile> consumer) throws DeviceProfileException {
+        try {
+            logger.info(REQUEST, "Streaming Devices By OS name | osName={}", osName);
+            requireNonNull(osName, "OS Name cannot be null");
+            requireNonNull(consumer, "Consumer cannot be null");
+            if (osName.isBlank()) throw new IllegalArgumentException("OS Name cannot be blank");
+
+            repository.streamDeviceProfilesByOSName(osName.toLowerCase(), consumer);
+        } catch (Exception ex) {
+            throw new DeviceProfileException(ex);
+        }
+    }
+
+    @Override
+    public long importDevices(Iterator<DeviceProfile> devices) throws DeviceProfileException {
+        try {
+            logger.info(REQUEST, "Importing Devices");
+            requireNonNull(devices, "Devices cannot be null");
+
+            var imported = repository.importDeviceProfiles(devices);
+            logger.debug("Devices imported | devices={}", imported);
+            return imported;
+        } catch (IllegalArgumentException | UncheckedIOException ex) {
+            throw new DeviceProfileImportException(ex);
+        } catch (Exception ex) {
+            throw new DeviceProfileException(ex);
+        }
+    }
+
+    @Override
+    public long exportDevices(Consumer<DeviceProfile> consumer) throws DeviceProfileException {
+        try {
+            logger.info(REQUEST, "Exporting Devices");
+            requireNonNull(consumer, "Consumer cannot be null");
+
+            return repository.exportDeviceProfiles(consumer);
+        } catch (Exception ex) {
+            throw new DeviceProfileException(ex);
+        }
+    }
+
+    @Override
+    public DeviceProfileStats getDeviceStats(DeviceProfileGroupBy groupBy, String osName) throws DeviceProfileException {
+        try {
+            logger.info(REQUEST, "Getting Device Stats | groupBy={} osName={}", groupBy, osName);
+            requireNonNull(groupBy, "Group by cannot be null");
+            if (osName != null && osName.isBlank()) osName = null;
+
+            return repository.aggregateDeviceProfiles(groupBy, osName == null ? null : osName.toLowerCase());
+        } catch (Exception ex) {
+            throw new DeviceProfileException(ex);
+        }
+    }
+
     @Override
     public void deleteDeviceById(String deviceId) throws DeviceProfileException {
         try {
-            logger.info("Deleting Device By ID | deviceId={}", deviceId);
+            logger.info(REQUEST, "Deleting Device By ID | deviceId={}", deviceId);
             requireNonNull(deviceId, "Device ID cannot be null");
             if (deviceId.isBlank()) throw new IllegalArgumentException("Device ID cannot be blank");
 
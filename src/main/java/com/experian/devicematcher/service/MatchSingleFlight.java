@@ -0,0 +1,111 @@
+package com.experian.devicematcher.service;
+
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.UserAgent;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces concurrent matches of the same User-Agent tuple into one repository call at a time.
+ * <p>
+ * Matches of a tuple join a flight. The first caller of a flight leads it: once the previous flight of the tuple has
+ * completed, it seals the flight and matches once with the hits of every caller that joined, and every caller gets
+ * that result. Calls arriving while a flight is running join the next one. So there is at most one repository call in
+ * flight per tuple, and a burst of first-time matches for a new tuple creates one device with a handful of calls
+ * instead of one per request.
+ * <p>
+ * Tuples are compared with lowercase names, as the repositories do. Callers of a flight see the hit count after all
+ * of its hits were added, and share its failure.
+ */
+public class MatchSingleFlight {
+
+    /**
+     * Matches the tuple once, adding the given number of hits.
+     */
+    @FunctionalInterface
+    public interface Matcher {
+        DeviceProfileMatch match(UserAgent userAgent, long hits);
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<DeviceProfileMatch> result = new CompletableFuture<>();
+        // completed flight of the tuple this one waits for, null if none
+        private final CompletableFuture<DeviceProfileMatch> previous;
+        // guarded by the map bin of the tuple: only changed in compute
+        private long hits = 1;
+        private boolean sealed;
+
+        private Flight(CompletableFuture<DeviceProfileMatch> previous) {
+            this.previous = previous;
+        }
+    }
+
+    private final Map<UserAgent, Flight> flights = new ConcurrentHashMap<>();
+
+    public DeviceProfileMatch match(UserAgent userAgent, Matcher matcher) {
+        var key = normalize(userAgent);
+        var leader = new Flight[1];
+        var flight = flights.compute(key, (k, current) -> {
+            if (current != null && !current.sealed) {
+                current.hits++;
+                return current;
+            }
+            leader[0] = new Flight(current == null ? null : current.result);
+            return leader[0];
+        });
+
+        if (flight == leader[0]) lead(key, userAgent, flight, matcher);
+        try {
+            return flight.result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw ex;
+        }
+    }
+
+    /**
+     * Number of tuples with a flight waiting or running.
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    /**
+     * Hits of the flight of the tuple still waiting for its previous flight, 0 if none (for tests).
+     */
+    long waitingHits(UserAgent userAgent) {
+        var hits = new long[1];
+        flights.computeIfPresent(normalize(userAgent), (k, current) -> {
+            if (!current.sealed) hits[0] = current.hits;
+            return current;
+        });
+        return hits[0];
+    }
+
+    private void lead(UserAgent key, UserAgent userAgent, Flight flight, Matcher matcher) {
+        // the outcome of the previous flight does not matter, only that its write is done
+        if (flight.previous != null) flight.previous.handle((match, ex) -> null).join();
+
+        var hits = new long[1];
+        flights.computeIfPresent(key, (k, current) -> {
+            flight.sealed = true;
+            hits[0] = flight.hits;
+            return current;
+        });
+
+        try {
+            flight.result.complete(matcher.match(userAgent, hits[0]));
+        } catch (RuntimeException | Error ex) {
+            flight.result.completeExceptionally(ex);
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private static UserAgent normalize(UserAgent userAgent) {
+        return new UserAgent(userAgent.osName().toLowerCase(), userAgent.osVersion(), userAgent.browserName().toLowerCase(), userAgent.browserVersion());
+    }
+}
@@ -0,0 +1,88 @@
+package com.experian.devicematcher.service;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileGroupBy;
+import com.experian.devicematcher.domain.DeviceProfilePage;
+import com.experian.devicematcher.domain.DeviceProfileQuery;
+import com.experian.devicematcher.domain.DeviceProfileStats;
+import com.experian.devicematcher.exceptions.DeviceProfileException;
+import com.experian.devicematcher.metrics.OperationTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Decorator that times every call of a {@link DeviceProfileService} ({@code devicematcher.service}), failures
+ * being tagged with the {@link DeviceProfileException} subclass that the controllers map to a status code.
+ */
+public class MeteredDeviceProfileService implements DeviceProfileService {
+    public static final String TIMER = "devicematcher.service";
+
+    private final DeviceProfileService delegate;
+    private final OperationTimer timer;
+
+    public MeteredDeviceProfileService(DeviceProfileService delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.timer = new OperationTimer(registry, TIMER, "Device profile service calls");
+    }
+
+    @Override
+    public Optional<DeviceProfile> getDeviceById(String deviceId) throws DeviceProfileException {
+        return timer.record("getDeviceById", () -> delegate.getDeviceById(deviceId));
+    }
+
+    @Override
+    public DeviceProfile matchDevice(String userAgentString) throws DeviceProfileException {
+        return timer.record("matchDevice", () -> delegate.matchDevice(userAgentString));
+    }
+
+    @Override
+    public List<DeviceProfile> matchDevices(List<String> userAgentStrings) throws DeviceProfileException {
+        return timer.record("matchDevices", () -> delegate.matchDevices(userAgentStrings));
+    }
+
+    @Override
+    public List<DeviceProfile> getDevicesByOS(String osName) throws DeviceProfileException {
+        return timer.record("getDevicesByOS", () -> delegate.getDevicesByOS(osName));
+    }
+
+    @Override
+    public DeviceProfilePage getDevicesByOS(String osName, int pageSize, String cursor) throws DeviceProfileException {
+        return timer.record("getDevicesPageByOS", () -> delegate.getDevicesByOS(osName, pageSize, cursor));
+    }
+
+    @Override
+    public DeviceProfilePage searchDevices(DeviceProfileQuery query, int pageSize, String cursor) throws DeviceProfileException {
+        return timer.record("searchDevices", () -> delegate.searchDevices(query, pageSize, cursor));
+    }
+
+    @Override
+    public void streamDevicesByOS(String osName, Consumer<DeviceProfile> consumer) throws DeviceProfileException {
+        // includes the time spent by the consumer writing the response
+        timer.run("streamDevicesByOS", () -> delegate.streamDevicesByOS(osName, consumer));
+    }
+
+    @Override
+    public long importDevices(Iterator<DeviceProfile> devices) throws DeviceProfileException {
+        return timer.record("importDevices", () -> delegate.importDevices(devices));
+    }
+
+    @Override
+    public long exportDevices(Consumer<DeviceProfile> consumer) throws DeviceProfileException {
+        // includes the time spent by the consumer writing the response
+        return timer.record("exportDevices", () -> delegate.exportDevices(consumer));
+    }
+
+    @Override
+    public DeviceProfileStats getDeviceStats(DeviceProfileGroupBy groupBy, String osName) throws DeviceProfileException {
+        return timer.record("getDeviceStats", () -> delegate.getDeviceStats(groupBy, osName));
+    }
+
+    @Override
+    public void deleteDeviceById(String deviceId) throws DeviceProfileException {
+        timer.run("deleteDeviceById", () -> delegate.deleteDeviceById(deviceId));
+    }
+}
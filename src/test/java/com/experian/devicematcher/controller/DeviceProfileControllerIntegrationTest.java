@@ -1,9 +1,13 @@
 package com.experian.devicematcher.controller;
 
+import com.experian.devicematcher.dto.DeviceMatchBatchRequestDTO;
 import com.experian.devicematcher.dto.DeviceProfileDTO;
+import com.experian.devicematcher.dto.DeviceProfileImportDTO;
+import com.experian.devicematcher.dto.DeviceProfileStatsDTO;
 import com.experian.devicematcher.dto.DeviceProfilesDTO;
 import com.experian.devicematcher.parser.UserAgentCustomParser;
 import com.experian.devicematcher.repository.DeviceProfileRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +24,10 @@ import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.utility.DockerImageName;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.IntStream;
 
@@ -164,6 +171,38 @@ class DeviceProfileControllerIntegrationTest {
         assertEquals(userAgent.browserVersion().toString(), response.getBody().browserVersion());
     }
 
+    @Test
+    void matchDevices_WithDuplicatedUserAgents_ShouldAggregateHits_And_KeepInputOrder() {
+        // Arrange
+        var firefox = "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:115.0) Gecko/20100101 Firefox/115.0";
+        var opera = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/114.0.0.0 Safari/537.36 OPR/100.0.0.0";
+
+        // Act
+        var response = matchDevices(List.of(firefox, opera, firefox));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        var devices = response.getBody().devices();
+        assertEquals(3, devices.size());
+        assertEquals(devices.get(0).deviceId(), devices.get(2).deviceId());
+        assertNotEquals(devices.get(0).deviceId(), devices.get(1).deviceId());
+        assertEquals(2L, devices.get(0).hitCount());
+        assertEquals(1L, devices.get(1).hitCount());
+
+        // a later single match sees the batch hits
+        var single = matchDevice(firefox).getBody();
+        assertNotNull(single);
+        assertEquals(devices.get(0).deviceId(), single.deviceId());
+        assertEquals(3L, single.hitCount());
+    }
+
+    @Test
+    void matchDevices_WithBlankUserAgent_ShouldReturnBadRequest() {
+        var response = matchDevices(List.of("Mozilla/5.0 (X11; Linux x86_64; rv:102.0) Gecko/20100101 Firefox/102.0", ""));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void getDevicesById_WithBlankId_ShouldReturnNotFoundResource() {
         String deviceId = "";
@@ -250,6 +289,188 @@ class DeviceProfileControllerIntegrationTest {
         assertTrue(devicesByOS.devices().stream().allMatch(d -> d.osName().equalsIgnoreCase(osName)));
     }
 
+    @Test
+    void getDevicesByOS_WithPageSize_ShouldWalkAllPagesWithCursor() {
+        // Arrange
+        var expected = List.of(
+            matchDevice("Mozilla/5.0 (X11; CrOS x86_64 14541.0.0) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/114.0.0.0 Safari/537.36").getBody(),
+            matchDevice("Mozilla/5.0 (X11; CrOS x86_64 15359.58.0) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/117.0.5938.157 Safari/537.36").getBody(),
+            matchDevice("Mozilla/5.0 (X11; CrOS aarch64 15474.70.0) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/118.0.5993.132 Safari/537.36").getBody()
+        );
+        assertTrue(expected.stream().allMatch(Objects::nonNull));
+        var osName = expected.getFirst().osName();
+        assertTrue(expected.stream().allMatch(d -> d.osName().equals(osName)));
+
+        // Act
+        var seen = new HashSet<String>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var response = getDevicesByOSPage(osName, 1, cursor);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNotNull(response.getBody());
+            assertTrue(response.getBody().devices().size() <= 1);
+            response.getBody().devices().forEach(d -> assertTrue(seen.add(d.deviceId()), "Device returned twice"));
+            cursor = response.getBody().nextCursor();
+            assertTrue(++pages < 100, "Pagination did not terminate");
+        } while (cursor != null);
+
+        // Assert
+        assertTrue(expected.stream().allMatch(d -> seen.contains(d.deviceId())));
+    }
+
+    @Test
+    void getDevicesByOS_WithInvalidCursor_ShouldReturnBadRequest() {
+        // Act
+        var response = getDevicesByOSPage("windows", 10, "not-a-cursor");
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void searchDevices_ByBrowserAndVersionRange_ShouldReturnOnlyDevicesInRange() {
+        // Arrange
+        var older = matchDevice("Mozilla/5.0 (X11; Linux x86_64; rv:91.0) Gecko/20100101 Firefox/91.0").getBody();
+        var inRange = matchDevice("Mozilla/5.0 (X11; Linux x86_64; rv:115.0) Gecko/20100101 Firefox/115.0").getBody();
+        var newer = matchDevice("Mozilla/5.0 (X11; Linux x86_64; rv:125.0) Gecko/20100101 Firefox/125.0").getBody();
+        assertNotNull(older);
+        assertNotNull(inRange);
+        assertNotNull(newer);
+
+        // Act
+        var found = new ArrayList<DeviceProfileDTO>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var response = searchDevices("browser=firefox&browserVersionMin=110&browserVersionMax=120.5", cursor);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNotNull(response.getBody());
+            found.addAll(response.getBody().devices());
+            cursor = response.getBody().nextCursor();
+            assertTrue(++pages < 100, "Pagination did not terminate");
+        } while (cursor != null);
+
+        // Assert
+        assertTrue(found.stream().anyMatch(d -> d.deviceId().equals(inRange.deviceId())));
+        assertTrue(found.stream().noneMatch(d -> d.deviceId().equals(older.deviceId()) || d.deviceId().equals(newer.deviceId())));
+        assertTrue(found.stream().allMatch(d -> d.browserName().equalsIgnoreCase("firefox")));
+    }
+
+    @Test
+    void searchDevices_WithInvalidVersion_ShouldReturnBadRequest() {
+        var response = restTemplate.getForEntity(baseUrl + "/v1/devices?browser=firefox&browserVersionMin=latest", String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void getDevicesByOS_WithNdjsonAccept_ShouldStreamOneDevicePerLine() throws Exception {
+        // Arrange
+        var device = matchDevice("Mozilla/5.0 (X11; FreeBSD amd64; rv:109.0) Gecko/20100101 Firefox/115.0").getBody();
+        assertNotNull(device);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("os-name", device.osName());
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        // Act
+        var response = restTemplate.exchange(baseUrl + "/v1/devices", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        var mapper = new ObjectMapper();
+        var lines = response.getBody().lines().filter(line -> !line.isBlank()).toList();
+        assertFalse(lines.isEmpty());
+        for (var line : lines) {
+            var streamed = mapper.readValue(line, DeviceProfileDTO.class);
+            assertTrue(streamed.osName().equalsIgnoreCase(device.osName()));
+        }
+        assertTrue(lines.stream().anyMatch(line -> line.contains(device.deviceId())));
+    }
+
+    @Test
+    void importDevices_ThenExport_ShouldRoundTripEveryDevice() throws Exception {
+        // Arrange
+        var csv = String.join("\n",
+            "deviceId,hitCount,osName,osVersion,browserName,browserVersion",
+            "import-1,7,Windows,10.0.0,Chrome,120.0.6099",
+            "import-2,0,\"Mac OS X\",14.2.1,Safari,17.2.0"
+        );
+        HttpHeaders importHeaders = new HttpHeaders();
+        importHeaders.setContentType(MediaType.parseMediaType("text/csv"));
+
+        // Act
+        var imported = restTemplate.exchange(baseUrl + "/v1/devices/import", HttpMethod.POST, new HttpEntity<>(csv, importHeaders), DeviceProfileImportDTO.class);
+
+        HttpHeaders exportHeaders = new HttpHeaders();
+        exportHeaders.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        var exported = restTemplate.exchange(baseUrl + "/v1/devices/export", HttpMethod.GET, new HttpEntity<>(exportHeaders), String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, imported.getStatusCode());
+        assertNotNull(imported.getBody());
+        assertEquals(2L, imported.getBody().imported());
+
+        var device = getDeviceById("import-1").getBody();
+        assertNotNull(device);
+        assertEquals(7L, device.hitCount());
+
+        assertEquals(HttpStatus.OK, exported.getStatusCode());
+        assertNotNull(exported.getBody());
+        var mapper = new ObjectMapper();
+        var exportedIds = new HashSet<String>();
+        for (var line : exported.getBody().lines().filter(line -> !line.isBlank()).toList()) {
+            exportedIds.add(mapper.readValue(line, DeviceProfileDTO.class).deviceId());
+        }
+        assertTrue(exportedIds.containsAll(List.of("import-1", "import-2")));
+    }
+
+    @Test
+    void getDeviceStats_WithGroupByAndOS_ShouldReturnTotalsPerGroup() {
+        // Arrange: an OS of its own, so devices of the other tests are not counted
+        var ndjson = String.join("\n",
+            "{\"deviceId\":\"stats-1\",\"hitCount\":10,\"osName\":\"statsos\",\"osVersion\":\"1.0.0\",\"browserName\":\"chrome\",\"browserVersion\":\"120.0.0\"}",
+            "{\"deviceId\":\"stats-2\",\"hitCount\":5,\"osName\":\"statsos\",\"osVersion\":\"1.0.0\",\"browserName\":\"chrome\",\"browserVersion\":\"121.0.0\"}",
+            "{\"deviceId\":\"stats-3\",\"hitCount\":1,\"osName\":\"statsos\",\"osVersion\":\"2.0.0\",\"browserName\":\"firefox\",\"browserVersion\":\"121.0.0\"}"
+        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        restTemplate.exchange(baseUrl + "/v1/devices/import", HttpMethod.POST, new HttpEntity<>(ndjson, headers), DeviceProfileImportDTO.class);
+
+        // Act
+        var response = restTemplate.getForEntity(baseUrl + "/v1/devices/stats?groupBy=browserName&os=StatsOS", DeviceProfileStatsDTO.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("browserName", response.getBody().groupBy());
+        assertEquals(3L, response.getBody().devices());
+        assertEquals(16L, response.getBody().hits());
+        assertEquals(List.of(
+            new DeviceProfileStatsDTO.GroupDTO("chrome", 2, 15),
+            new DeviceProfileStatsDTO.GroupDTO("firefox", 1, 1)
+        ), response.getBody().groups());
+    }
+
+    @Test
+    void getDeviceStats_WithInvalidGroupBy_ShouldReturnBadRequest() {
+        var response = restTemplate.getForEntity(baseUrl + "/v1/devices/stats?groupBy=deviceId", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void importDevices_WithInvalidLine_ShouldReturnBadRequest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        var body = "{\"deviceId\":\"import-3\",\"hitCount\":1,\"osName\":\"Linux\"}";
+
+        var response = restTemplate.exchange(baseUrl + "/v1/devices/import", HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void deleteDeviceById_WithBlankId_ShouldReturnBadRequest() {
         // Act
@@ -321,6 +542,23 @@ class DeviceProfileControllerIntegrationTest {
         assertEquals(totalThreads * requestsPerThread + 1, finalResponse.getBody().hitCount());
     }
 
+    @Test
+    void prometheus_AfterMatch_ShouldExposeServiceRepositoryAndParserMetrics() {
+        var matchResponse = matchDevice("Mozilla/5.0 (Windows NT 6.1; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/109.0.0.0 Safari/537.36");
+        assertEquals(HttpStatus.OK, matchResponse.getStatusCode());
+
+        var response = restTemplate.getForEntity(baseUrl + "/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        var body = Objects.requireNonNull(response.getBody());
+        assertTrue(body.contains("devicematcher_service_seconds_count{"), "service timer");
+        assertTrue(body.contains("operation=\"matchDevice\""), "service operation tag");
+        assertTrue(body.contains("devicematcher_repository_seconds_count{"), "repository timer");
+        assertTrue(body.contains("devicematcher_repository_matches_total{"), "match outcome counter");
+        assertTrue(body.contains("devicematcher_parser_seconds_count{"), "parser timer");
+        assertTrue(body.contains("cache=\"useragent-parser\""), "parser cache metrics");
+    }
+
     //----------------------------------------
     // Helpers
     //----------------------------------------
@@ -338,6 +576,19 @@ class DeviceProfileControllerIntegrationTest {
         );
     }
 
+    private ResponseEntity<DeviceProfilesDTO> matchDevices(List<String> userAgentStrings) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+        return restTemplate.exchange(
+                baseUrl + "/v1/devices/batch",
+                HttpMethod.POST,
+                new HttpEntity<>(new DeviceMatchBatchRequestDTO(userAgentStrings), headers),
+                DeviceProfilesDTO.class
+        );
+    }
+
     private ResponseEntity<DeviceProfilesDTO> getDevicesByOS(String osName) {
         HttpHeaders headers = new HttpHeaders();
         headers.set("os-name", osName);
@@ -352,6 +603,33 @@ class DeviceProfileControllerIntegrationTest {
         );
     }
 
+    private ResponseEntity<DeviceProfilesDTO> getDevicesByOSPage(String osName, int pageSize, String cursor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("os-name", osName);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+        var url = baseUrl + "/v1/devices?pageSize=" + pageSize + (cursor == null ? "" : "&cursor=" + cursor);
+        return restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                DeviceProfilesDTO.class
+        );
+    }
+
+    private ResponseEntity<DeviceProfilesDTO> searchDevices(String criteria, String cursor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+        var url = baseUrl + "/v1/devices?pageSize=50&" + criteria + (cursor == null ? "" : "&cursor=" + cursor);
+        return restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                DeviceProfilesDTO.class
+        );
+    }
+
     private ResponseEntity<DeviceProfileDTO> getDeviceById(String deviceId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -0,0 +1,33 @@
+package com.experian.devicematcher.domain;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+class DeviceProfileQueryTest {
+    @Test
+    void constructor_shouldNormalizeNames() {
+        var query = new DeviceProfileQuery(" Windows ", " ", null, null, null, null);
+
+        assertEquals("windows", query.osName());
+        assertNull(query.browserName());
+    }
+
+    @Test
+    void constructor_whenNoCriteria_shouldThrowException() {
+        var ex = assertThrows(IllegalArgumentException.class, () -> new DeviceProfileQuery(null, "", null, null, null, null));
+        assertEquals("At least one search criterion is required", ex.getMessage());
+    }
+
+    @Test
+    void constructor_whenMinGreaterThanMax_shouldThrowException() {
+        var min = SemVersion.parse("120.0.1");
+        var max = SemVersion.parse("120");
+        assertThrows(IllegalArgumentException.class, () -> new DeviceProfileQuery(null, null, null, null, min, max));
+        assertThrows(IllegalArgumentException.class, () -> new DeviceProfileQuery(null, null, min, max, null, null));
+    }
+}
@@ -0,0 +1,52 @@
+package com.experian.devicematcher.domain;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+class DeviceProfileStatsTest {
+    @Test
+    void accumulator_whenMerged_shouldAddTotalsAndSortByDescendingHits() {
+        var first = new DeviceProfileStats.Accumulator();
+        first.add("chrome", 10);
+        first.add("firefox", 2);
+        var second = new DeviceProfileStats.Accumulator();
+        second.add("chrome", 5);
+        second.add("safari", 2);
+
+        var stats = first.merge(second).toStats(DeviceProfileGroupBy.BROWSER_NAME, "android");
+
+        assertEquals(List.of(
+            new DeviceProfileStats.Group("chrome", 2, 15),
+            new DeviceProfileStats.Group("firefox", 1, 2),
+            new DeviceProfileStats.Group("safari", 1, 2)
+        ), stats.groups());
+        assertEquals(4L, stats.devices());
+        assertEquals(19L, stats.hits());
+    }
+
+    @Test
+    void fromProperty_shouldIgnoreCase() {
+        assertEquals(DeviceProfileGroupBy.BROWSER_VERSION, DeviceProfileGroupBy.fromProperty(" browserversion "));
+    }
+
+    @Test
+    void fromProperty_whenUnknown_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> DeviceProfileGroupBy.fromProperty("deviceId"));
+        assertThrows(IllegalArgumentException.class, () -> DeviceProfileGroupBy.fromProperty(null));
+    }
+
+    @Test
+    void valueOf_shouldLowercaseNamesAndUseFullVersions() {
+        var userAgent = new UserAgent("Android", "14", "Chrome Mobile", "120.0.6099");
+
+        assertEquals("android", DeviceProfileGroupBy.OS_NAME.valueOf(userAgent));
+        assertEquals("14.0.0", DeviceProfileGroupBy.OS_VERSION.valueOf(userAgent));
+        assertEquals("chrome mobile", DeviceProfileGroupBy.BROWSER_NAME.valueOf(userAgent));
+    }
+}
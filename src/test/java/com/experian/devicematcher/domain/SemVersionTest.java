@@ -6,6 +6,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Tag("unit")
@@ -49,6 +51,9 @@ class SemVersionTest {
         "0.0.0, 0, 0, 0",
         "1.0.0, 1, 0, 0",
         "0.0.1, 0, 0, 1",
+        "1..3, 1, 0, 3",
+        "1.2.3.4, 1, 2, 3",
+        "20100101.1.1, 20100101, 1, 1",
     })
     void parse_whenValidSyntax_shouldReturnVersion(
         String versionString,
@@ -82,4 +87,52 @@ class SemVersionTest {
         SemVersion version2 = new SemVersion(0, 1, 0);
         assertEquals(1, version1.compareTo(version2));
     }
+
+    @Test
+    void of_whenSameVersion_shouldReturnSharedInstance() {
+        assertSame(SemVersion.of(116, 0, 5845), SemVersion.of(116, 0, 5845));
+        assertSame(SemVersion.parse("116.0.5845"), SemVersion.of(116, 0, 5845));
+    }
+
+    @Test
+    void of_whenNegativeVersion_shouldThrowException() {
+        var ex = assertThrows(IllegalArgumentException.class, () -> SemVersion.of(1, -1, 0));
+        assertEquals("Minor version cannot be negative", ex.getMessage());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "116, 0, 5845",
+        "0, 0, 0",
+        // components too large to be packed
+        "20100101, 1, 1",
+        "1, 0, 3000000000"
+    })
+    void equals_whenSharedOrNewInstance_shouldBeEqualWithSameHashCode(long major, long minor, long patch) {
+        var shared = SemVersion.of(major, minor, patch);
+        var created = new SemVersion(major, minor, patch);
+
+        assertEquals(shared, created);
+        assertEquals(shared.hashCode(), created.hashCode());
+        assertEquals(0, shared.compareTo(created));
+        assertEquals(major + "." + minor + "." + patch, created.toString());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "1.2.3, 1.2.4",
+        "1.9.0, 1.10.0",
+        "2097151.0.0, 2097152.0.0",
+        "3000000.0.0, 3000001.0.0",
+        "3000000.5.0, 3000000.6.0",
+        "1.0.2097151, 1.1.0"
+    })
+    void compareTo_whenLower_shouldReturnNegative(String lower, String higher) {
+        var lowerVersion = SemVersion.parse(lower);
+        var higherVersion = SemVersion.parse(higher);
+
+        assertEquals(-1, lowerVersion.compareTo(higherVersion));
+        assertEquals(1, higherVersion.compareTo(lowerVersion));
+        assertNotEquals(lowerVersion, higherVersion);
+    }
 }
@@ -0,0 +1,91 @@
+package com.experian.devicematcher.dto;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+class DeviceProfileRowReaderTest {
+
+    @Test
+    void next_whenNdjson_shouldReadOneDevicePerLineSkippingBlankLines() {
+        var input = """
+            {"deviceId":"d1","hitCount":3,"osName":"windows","osVersion":"10","browserName":"chrome","browserVersion":"120.0"}
+
+            {"deviceId":"d2","hitCount":0,"osName":"ios","osVersion":"16.4","browserName":"mobile safari","browserVersion":"16.4"}
+            """;
+
+        var devices = readAll(input, DeviceProfileRowReader.Format.NDJSON);
+
+        assertEquals(List.of("d1", "d2"), devices.stream().map(DeviceProfile::deviceId).toList());
+        assertEquals(3L, devices.get(0).hitCount());
+        assertEquals("mobile safari", devices.get(1).userAgent().browserName());
+    }
+
+    @Test
+    void next_whenCsvWithHeader_shouldSkipHeaderAndUnquoteFields() {
+        var input = DeviceProfileCsv.HEADER + "\n"
+            + "d1,5,\"Mac OS X\",14.2.1,\"Chrome, \"\"beta\"\"\",121.0\n";
+
+        var devices = readAll(input, DeviceProfileRowReader.Format.CSV);
+
+        assertEquals(1, devices.size());
+        assertEquals(5L, devices.get(0).hitCount());
+        assertEquals("Chrome, \"beta\"", devices.get(0).userAgent().browserName());
+    }
+
+    @Test
+    void next_whenCsvWithoutHeader_shouldReadFirstLine() {
+        var devices = readAll("d1,1,linux,6.1,firefox,121.0", DeviceProfileRowReader.Format.CSV);
+
+        assertEquals("d1", devices.get(0).deviceId());
+    }
+
+    @Test
+    void toRow_shouldRoundTripThroughFromRow() {
+        var dto = new DeviceProfileDTO("d1", 7L, "Mac OS X", "14.2", "Chrome, \"beta\"", "121.0");
+
+        assertEquals(dto, DeviceProfileCsv.fromRow(DeviceProfileCsv.toRow(dto)));
+    }
+
+    @Test
+    void next_whenLineInvalid_shouldThrowWithLineNumber() {
+        var input = "d1,1,linux,6.1,firefox,121.0\nd2,not-a-number,linux,6.1,firefox,121.0\n";
+        var reader = new DeviceProfileRowReader(new StringReader(input), DeviceProfileRowReader.Format.CSV);
+
+        assertTrue(reader.hasNext());
+        reader.next();
+        var ex = assertThrows(IllegalArgumentException.class, reader::hasNext);
+        assertTrue(ex.getMessage().contains("line=2"));
+    }
+
+    @Test
+    void next_whenColumnsMissing_shouldThrow() {
+        var reader = new DeviceProfileRowReader(new StringReader("d1,1,linux"), DeviceProfileRowReader.Format.CSV);
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+
+    @Test
+    void hasNext_whenInputEmpty_shouldReturnFalse() {
+        var reader = new DeviceProfileRowReader(new StringReader("\n\n"), DeviceProfileRowReader.Format.NDJSON);
+
+        assertFalse(reader.hasNext());
+        assertEquals(2, reader.lineNumber());
+    }
+
+    private static List<DeviceProfile> readAll(String input, DeviceProfileRowReader.Format format) {
+        var devices = new ArrayList<DeviceProfile>();
+        new DeviceProfileRowReader(new StringReader(input), format).forEachRemaining(devices::add);
+        return devices;
+    }
+}
@@ -0,0 +1,79 @@
+package com.experian.devicematcher.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Marker;
+
+import static com.experian.devicematcher.logging.RequestLog.REQUEST;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+class RequestLogSamplerTest {
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("com.experian.devicematcher.service.DeviceProfileServiceImpl");
+    private final RequestLogSampler sampler = new RequestLogSampler();
+
+    @Test
+    void decide_whenRequestStatementAndSampleRateOne_shouldBeNeutral() {
+        assertEquals(FilterReply.NEUTRAL, decide(REQUEST, Level.INFO));
+    }
+
+    @Test
+    void decide_whenRequestStatementAndSampleRateZero_shouldDeny() {
+        sampler.setSampleRate(0.0);
+
+        assertEquals(FilterReply.DENY, decide(REQUEST, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(null, Level.INFO));
+    }
+
+    @Test
+    void decide_whenWarnOrError_shouldNeverFilter() {
+        sampler.setSampleRate(0.0);
+
+        assertEquals(FilterReply.NEUTRAL, decide(REQUEST, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(REQUEST, Level.ERROR));
+    }
+
+    @Test
+    void decide_whenMaxPerSecondReached_shouldDenyUntilNextSecond() {
+        sampler.setMaxPerSecond(2);
+
+        assertEquals(FilterReply.NEUTRAL, decide(REQUEST, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(REQUEST, Level.INFO));
+        assertEquals(FilterReply.DENY, decide(REQUEST, Level.INFO));
+        assertTrue(sampler.withinRate(System.nanoTime() + 1_000_000_000L));
+    }
+
+    @Test
+    void withinRate_whenWindowElapsed_shouldResetCount() {
+        sampler.setMaxPerSecond(1);
+        var now = System.nanoTime();
+
+        assertTrue(sampler.withinRate(now));
+        assertFalse(sampler.withinRate(now));
+        assertTrue(sampler.withinRate(now + 2_000_000_000L));
+    }
+
+    @Test
+    void decide_whenDebugSampleRateOne_shouldAcceptDebugOfAppLoggers() {
+        sampler.setDebugSampleRate(1.0);
+
+        assertEquals(FilterReply.ACCEPT, decide(null, Level.DEBUG));
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(null, context.getLogger("org.springframework.web"), Level.DEBUG, "msg", null, null));
+    }
+
+    @Test
+    void decide_whenDebugSampleRateZero_shouldBeNeutral() {
+        assertEquals(FilterReply.NEUTRAL, decide(null, Level.DEBUG));
+    }
+
+    private FilterReply decide(Marker marker, Level level) {
+        return sampler.decide(marker, logger, level, "msg", null, null);
+    }
+}
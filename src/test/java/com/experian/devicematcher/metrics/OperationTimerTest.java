@@ -0,0 +1,48 @@
+package com.experian.devicematcher.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+class OperationTimerTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OperationTimer timer = new OperationTimer(registry, "test.calls", "Test calls", ex -> "E42");
+
+    @Test
+    void record_whenSuccess_shouldTimeSuccessOfOperation() {
+        assertEquals("ok", timer.record("find", () -> "ok"));
+        timer.record("find", () -> "ok");
+
+        var success = registry.get("test.calls").tags("operation", "find", "outcome", "success", "exception", "none", "code", "none").timer();
+        assertEquals(2, success.count());
+    }
+
+    @Test
+    void record_whenFailure_shouldTimeErrorAndRethrow() {
+        var failure = new IOException("down");
+
+        var thrown = assertThrows(IOException.class, () -> timer.record("find", () -> {
+            throw failure;
+        }));
+
+        assertSame(failure, thrown);
+        var error = registry.get("test.calls").tags("operation", "find", "outcome", "error", "exception", "IOException", "code", "E42").timer();
+        assertEquals(1, error.count());
+    }
+
+    @Test
+    void run_whenUncheckedFailure_shouldTimeError() {
+        assertThrows(IllegalStateException.class, () -> timer.run("delete", () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(1, registry.get("test.calls").tags("operation", "delete", "outcome", "error").timer().count());
+    }
+}
@@ -0,0 +1,67 @@
+package com.experian.devicematcher.parser;
+
+import com.experian.devicematcher.domain.UserAgent;
+import com.experian.devicematcher.exceptions.UserAgentParsingException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@Tag("unit")
+class CachingUserAgentParserTest {
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.5845.110 Safari/537.36";
+
+    private final UserAgentParser delegate = mock(UserAgentParser.class);
+    private final CachingUserAgentParser parser = new CachingUserAgentParser(delegate, 100, 512);
+
+    @Test
+    void parse_whenSameUserAgentTwice_shouldParseOnceAndCountHit() throws Exception {
+        var userAgent = new UserAgent("windows", "10", "chrome", "116.0.5845");
+        when(delegate.parse(USER_AGENT)).thenReturn(userAgent);
+
+        var first = parser.parse(USER_AGENT);
+        var second = parser.parse(USER_AGENT);
+
+        assertSame(first, second);
+        assertEquals(1, parser.hitCount());
+        assertEquals(1, parser.missCount());
+        verify(delegate, times(1)).parse(USER_AGENT);
+    }
+
+    @Test
+    void parse_whenDelegateFails_shouldNotCacheFailure() throws Exception {
+        when(delegate.parse(USER_AGENT)).thenThrow(new UserAgentParsingException(new IllegalArgumentException()));
+
+        assertThrows(UserAgentParsingException.class, () -> parser.parse(USER_AGENT));
+        assertThrows(UserAgentParsingException.class, () -> parser.parse(USER_AGENT));
+
+        assertEquals(0, parser.estimatedSize());
+        verify(delegate, times(2)).parse(USER_AGENT);
+    }
+
+    @Test
+    void parse_whenBlankOrNull_shouldBypassCache() throws Exception {
+        when(delegate.parse(null)).thenThrow(new UserAgentParsingException(new IllegalArgumentException()));
+
+        assertThrows(UserAgentParsingException.class, () -> parser.parse(null));
+
+        assertEquals(0, parser.hitCount());
+        assertEquals(0, parser.missCount());
+    }
+
+    @Test
+    void parse_whenUserAgentLongerThanMaxKeyLength_shouldBypassCache() throws Exception {
+        var shortKeyParser = new CachingUserAgentParser(delegate, 100, 10);
+        var userAgent = new UserAgent("windows", "10", "chrome", "116.0.5845");
+        when(delegate.parse(USER_AGENT)).thenReturn(userAgent);
+
+        shortKeyParser.parse(USER_AGENT);
+        shortKeyParser.parse(USER_AGENT);
+
+        assertEquals(0, shortKeyParser.estimatedSize());
+        verify(delegate, times(2)).parse(USER_AGENT);
+    }
+}
@@ -0,0 +1,80 @@
+package com.experian.devicematcher.parser;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ua_parser.Client;
+import ua_parser.Parser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+class PrunedCatalogueParserTest {
+    private static final List<String> EDGE_CASES = List.of(
+        "INVALID_INPUT_Mozillaxxxxxxxxxxxxxxxxfari/53df",
+        "",
+        "Mozilla/5.0 (Windows NT 10.0; Trident/7.0; rv:11.0) like Gecko",
+        "Mozilla/5.0 (Android 12; Mobile; rv:102.0) Gecko/102.0 Firefox/102.0",
+        "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+        "Mozilla/5.0 (Linux; Android 13; Pixel 7; wv) AppleWebKit/537.36 (KHTML, like Gecko) Version/4.0 Chrome/116.0.5845.110 Mobile Safari/537.36",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 16_0 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Mobile/15E148 Instagram 302.0.0.23.114",
+        "curl/8.4.0",
+        "okhttp/4.12.0",
+        "Dalvik/2.1.0 (Linux; U; Android 13; SM-S918B Build/TP1A.220624.014)"
+    );
+
+    private static final Parser fullParser = new Parser();
+    private static final Parser prunedParser = PrunedCatalogueParser.fromBundledCatalogue();
+
+    @Test
+    void parse_whenCorpusUserAgent_shouldMatchFullCatalogue() {
+        assertConformance(UserAgentTestCorpus.load());
+    }
+
+    @Test
+    void parse_whenUncommonUserAgent_shouldMatchFullCatalogue() {
+        assertConformance(EDGE_CASES);
+    }
+
+    @Test
+    void parseDevice_shouldAlwaysBeOther() {
+        var client = prunedParser.parse("Mozilla/5.0 (Linux; Android 12; Pixel 6) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.5845.110 Mobile Safari/537.36");
+
+        assertEquals("Other", client.device.family);
+    }
+
+    @Test
+    void parse_whenNull_shouldReturnNullFields() {
+        assertNull(prunedParser.parseUserAgent(null));
+        assertNull(prunedParser.parseOS(null));
+    }
+
+    @Test
+    void new_whenSectionMissing_shouldThrowException() {
+        var catalogue = new ByteArrayInputStream("user_agent_parsers: []\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> new PrunedCatalogueParser(catalogue));
+    }
+
+    private static void assertConformance(List<String> userAgents) {
+        var mismatches = new ArrayList<String>();
+        for (var userAgent : userAgents) {
+            var expected = describe(fullParser.parse(userAgent));
+            var actual = describe(prunedParser.parse(userAgent));
+            if (!expected.equals(actual)) mismatches.add(userAgent + " -> expected " + expected + " but was " + actual);
+        }
+        assertEquals(List.of(), mismatches);
+    }
+
+    private static String describe(Client client) {
+        var ua = client.userAgent;
+        var os = client.os;
+        return String.join("|", ua.family, ua.major, ua.minor, ua.patch, os.family, os.major, os.minor, os.patch, os.patchMinor);
+    }
+}
@@ -0,0 +1,61 @@
+package com.experian.devicematcher.parser;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+class RegexPrefilterTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiterString = " => ", value = {
+        "'(Chrome)/(\\d+)\\.(\\d+)' => 'Chrome'",
+        "'(Windows NT 6\\.3)' => 'Windows NT 6.3'",
+        "'(iPod|iPhone|iPad).+Version/(\\d+)' => 'Version/'",
+        "'(?:Mobile Safari).*(OPR)/(\\d+)' => 'Mobile Safari'",
+        "'(Edge?)/(\\d+)' => 'Edg'",
+        "'foo(bar)?baz' => 'foo'",
+        "'[A-Z]{2}xyz+q' => 'xyz'",
+        "'Silk-Accelerated=[a-z]{4,5}' => 'Silk-Accelerated='",
+        "'^(Opera)/(\\d+)\\.(\\d+) \\(Nintendo Wii' => ' (Nintendo Wii'",
+    })
+    void of_whenRegexHasMandatoryLiteral_shouldExtractLongest(String regex, String expected) {
+        var prefilter = RegexPrefilter.of(regex, false);
+
+        assertNotNull(prefilter);
+        assertEquals(expected, prefilter.literal());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"(Ubuntu|Kubuntu)", "a|b", "(\\d+)\\.(\\d+)", "[^;]+;", "(?x) Chrome", "\\QChrome\\E"})
+    void of_whenRegexHasNoMandatoryLiteral_shouldReturnNull(String regex) {
+        assertNull(RegexPrefilter.of(regex, false));
+    }
+
+    @Test
+    void mayMatch_whenIgnoreCase_shouldCompareLowerCase() {
+        var prefilter = RegexPrefilter.of("(?i)(Mobile)/X", false);
+
+        assertNotNull(prefilter);
+        assertTrue(prefilter.ignoreCase());
+        assertTrue(prefilter.mayMatch("MOBILE/x", "mobile/x"));
+        assertFalse(prefilter.mayMatch("Desktop", "desktop"));
+    }
+
+    @Test
+    void mayMatch_whenLiteralAbsent_shouldReturnFalse() {
+        var prefilter = RegexPrefilter.of("(Chrome)/(\\d+)", false);
+
+        assertNotNull(prefilter);
+        assertTrue(prefilter.mayMatch("Chrome/116", "chrome/116"));
+        assertFalse(prefilter.mayMatch("Firefox/102", "firefox/102"));
+    }
+}
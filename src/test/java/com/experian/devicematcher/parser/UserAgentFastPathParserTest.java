@@ -0,0 +1,141 @@
+package com.experian.devicematcher.parser;
+
+import com.experian.devicematcher.domain.UserAgent;
+import com.experian.devicematcher.exceptions.UserAgentParsingException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ua_parser.Parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@Tag("unit")
+class UserAgentFastPathParserTest {
+    private static final String[] CHROME_VERSIONS = {"116.0.5845.110", "120.0.6099.234", "126.0.0.0", "131.0.6778.85"};
+    private static final String[] WINDOWS_NT = {"10.0", "6.3", "6.2", "6.1"};
+    private static final String[] WINDOWS_PLATFORMS = {"; Win64; x64", "; WOW64", ""};
+    private static final String[] ANDROID_VERSIONS = {"9", "10", "8.1.0", "12", "13", "14"};
+    private static final String[] ANDROID_MODELS = {"K", "Pixel 7", "SM-S918B", "moto g power", "Redmi Note 9 Pro", "ONEPLUS A6003"};
+    private static final String[] IOS_VERSIONS = {"15_7", "16_0", "16_6_1", "17_1_2", "18_0"};
+
+    private final UserAgentParser reference = new UserAgentCustomParser(new Parser());
+
+    @Test
+    void parse_whenCorpusUserAgent_shouldMatchRegexParser() throws Exception {
+        var userAgents = UserAgentTestCorpus.load();
+
+        var fastPathHits = assertConformance(userAgents);
+
+        // the corpus is dominated by the fast path families, a drop means a template stopped matching
+        assertTrue(fastPathHits * 2 > userAgents.size(), "Fast path hits " + fastPathHits + " of " + userAgents.size());
+    }
+
+    @Test
+    void parse_whenGeneratedUserAgent_shouldMatchRegexParser() throws Exception {
+        var userAgents = new ArrayList<String>();
+        for (var chrome : CHROME_VERSIONS) {
+            for (var nt : WINDOWS_NT) {
+                for (var platform : WINDOWS_PLATFORMS) {
+                    userAgents.add("Mozilla/5.0 (Windows NT " + nt + platform + ") AppleWebKit/537.36 (KHTML, like Gecko) Chrome/" + chrome + " Safari/537.36");
+                }
+            }
+            for (var android : ANDROID_VERSIONS) {
+                for (var model : ANDROID_MODELS) {
+                    userAgents.add("Mozilla/5.0 (Linux; Android " + android + "; " + model + ") AppleWebKit/537.36 (KHTML, like Gecko) Chrome/" + chrome + " Mobile Safari/537.36");
+                }
+            }
+        }
+        for (var ios : IOS_VERSIONS) {
+            var safari = ios.replace('_', '.');
+            userAgents.add("Mozilla/5.0 (iPhone; CPU iPhone OS " + ios + " like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/" + safari + " Mobile/15E148 Safari/604.1");
+        }
+
+        var fastPathHits = assertConformance(userAgents);
+
+        assertEquals(userAgents.size(), fastPathHits);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        // other browsers built on Chrome
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.5845.110 Safari/537.36 Edg/116.0.1938.69",
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.5845.110 Safari/537.36 OPR/102.0.0.0",
+        "Mozilla/5.0 (Linux; Android 13; SM-S918B) AppleWebKit/537.36 (KHTML, like Gecko) SamsungBrowser/22.0 Chrome/111.0.5563.116 Mobile Safari/537.36",
+        // WebView and in-app browsers
+        "Mozilla/5.0 (Linux; Android 13; Pixel 7; wv) AppleWebKit/537.36 (KHTML, like Gecko) Version/4.0 Chrome/116.0.5845.110 Mobile Safari/537.36",
+        "Mozilla/5.0 (Linux; Android 13; Pixel 7 Build/TQ3A.230805.001) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.5845.110 Mobile Safari/537.36 [FB_IAB/FB4A;FBAV/428.0.0.26.108;]",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 16_0 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Mobile/15E148",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 16_0 like Mac OS X) AppleWebKit/537.36 (KHTML, like Gecko) CriOS/116.0.5845.110 Mobile/15E148 Safari/604.1",
+        // Windows versions without a fast path mapping, tablets
+        "Mozilla/5.0 (Windows NT 6.0) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/49.0.2623.112 Safari/537.36",
+        "Mozilla/5.0 (Windows NT 6.3; ARM; Trident/7.0; Touch; rv:11.0) like Gecko",
+        "Mozilla/5.0 (Linux; Android 13; SM-X700) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.5845.110 Safari/537.36",
+        // malformed
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0 Safari/537.36",
+        "Mozilla/5.0 (Linux; Android 12; Pixel 6) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/99999999999.0.0.0 Mobile Safari/537.36",
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64)",
+        "Mozilla/5.0 (",
+        ""
+    })
+    void classify_whenNotFastPathTemplate_shouldReturnNull(String userAgent) {
+        assertNull(UserAgentFastPathParser.classify(userAgent));
+    }
+
+    @Test
+    void parse_whenFastPathMiss_shouldDelegate() throws Exception {
+        var delegate = mock(UserAgentParser.class);
+        var parser = new UserAgentFastPathParser(delegate);
+        var userAgentString = "Mozilla/5.0 (X11; Linux x86_64; rv:102.0) Gecko/20100101 Firefox/102.0";
+        var userAgent = new UserAgent("linux", "0.0.0", "firefox", "102.0.0");
+        when(delegate.parse(userAgentString)).thenReturn(userAgent);
+
+        assertSame(userAgent, parser.parse(userAgentString));
+    }
+
+    @Test
+    void parse_whenFastPathHit_shouldNotDelegate() throws Exception {
+        var delegate = mock(UserAgentParser.class);
+        var parser = new UserAgentFastPathParser(delegate);
+
+        var userAgent = parser.parse("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.5845.110 Safari/537.36");
+
+        assertEquals(new UserAgent("windows", "10.0.0", "chrome", "116.0.5845"), userAgent);
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void parse_whenNull_shouldDelegateFailure() throws Exception {
+        var parser = new UserAgentFastPathParser(reference);
+
+        assertThrows(UserAgentParsingException.class, () -> parser.parse(null));
+    }
+
+    /**
+     * @return how many of the User-Agents were classified by the fast path
+     */
+    private int assertConformance(List<String> userAgents) throws UserAgentParsingException {
+        var mismatches = new ArrayList<String>();
+        var fastPathHits = 0;
+        for (var userAgentString : userAgents) {
+            var fastPath = UserAgentFastPathParser.classify(userAgentString);
+            if (fastPath == null) continue;
+
+            fastPathHits++;
+            var expected = reference.parse(userAgentString);
+            if (!expected.equals(fastPath)) {
+                mismatches.add(userAgentString + " -> expected " + expected + " but was " + fastPath);
+            }
+        }
+        assertEquals(List.of(), mismatches);
+        return fastPathHits;
+    }
+}
@@ -0,0 +1,31 @@
+package com.experian.devicematcher.parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * User-Agent strings of the benchmark corpus, copied from src/jmh/resources to the test resources by the build.
+ */
+final class UserAgentTestCorpus {
+    private static final String RESOURCE = "/user-agents.txt";
+
+    private UserAgentTestCorpus() {
+    }
+
+    static List<String> load() {
+        var in = Objects.requireNonNull(UserAgentTestCorpus.class.getResourceAsStream(RESOURCE), "Missing " + RESOURCE);
+        try (var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.experian.devicematcher.repository;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.UserAgent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("unit")
+class CachingDeviceProfileRepositoryTest {
+    private final UserAgent userAgent = new UserAgent("windows", "10", "chrome", "116.0.5845");
+    private final DeviceProfile device = new DeviceProfile("windows-1", 5L, userAgent);
+
+    private final DeviceProfileRepository delegate = mock(DeviceProfileRepository.class);
+    private final CachingDeviceProfileRepository repository = new CachingDeviceProfileRepository(delegate, Duration.ofMinutes(1), 100);
+
+    @Test
+    void findDeviceProfileById_whenCalledTwice_shouldReadDelegateOnce() {
+        when(delegate.findDeviceProfileById(device.deviceId())).thenReturn(Optional.of(device));
+
+        assertEquals(Optional.of(device), repository.findDeviceProfileById(device.deviceId()));
+        assertEquals(Optional.of(device), repository.findDeviceProfileById(device.deviceId()));
+
+        verify(delegate, times(1)).findDeviceProfileById(device.deviceId());
+    }
+
+    @Test
+    void findDeviceProfileById_whenNotFound_shouldNotCacheMiss() {
+        when(delegate.findDeviceProfileById("missing")).thenReturn(Optional.empty());
+
+        assertTrue(repository.findDeviceProfileById("missing").isEmpty());
+        assertTrue(repository.findDeviceProfileById("missing").isEmpty());
+
+        verify(delegate, times(2)).findDeviceProfileById("missing");
+    }
+
+    @Test
+    void findDeviceProfileById_whenDeletedDuringRead_shouldNotCacheDeletedDevice() {
+        when(delegate.findDeviceProfileById(device.deviceId()))
+            .thenAnswer(invocation -> {
+                // the delete completes while the read is in flight
+                repository.deleteDeviceProfileById(device.deviceId());
+                return Optional.of(device);
+            })
+            .thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(device), repository.findDeviceProfileById(device.deviceId()));
+
+        assertNull(repository.devicesById().getIfPresent(device.deviceId()));
+        assertTrue(repository.findDeviceProfileById(device.deviceId()).isEmpty());
+    }
+
+    @Test
+    void findDeviceProfiles_whenPersistedDuringRead_shouldNotCacheStaleDevice() {
+        var persisted = device.withHitCount(42L);
+        when(delegate.findDeviceProfiles(userAgent)).thenAnswer(invocation -> {
+            repository.persistDeviceProfile(persisted);
+            return List.of(device);
+        });
+
+        repository.findDeviceProfiles(userAgent);
+
+        assertNull(repository.devicesById().getIfPresent(device.deviceId()));
+    }
+
+    @Test
+    void findDeviceProfiles_shouldCacheFoundDeviceById() {
+        when(delegate.findDeviceProfiles(userAgent)).thenReturn(List.of(device));
+
+        assertEquals(List.of(device), repository.findDeviceProfiles(userAgent));
+
+        assertEquals(Optional.of(device), repository.findDeviceProfileById(device.deviceId()));
+        verify(delegate, never()).findDeviceProfileById(any());
+    }
+
+    @Test
+    void deleteDeviceProfileById_shouldInvalidateCachedEntries() {
+        when(delegate.findDeviceProfiles(userAgent)).thenReturn(List.of(device));
+        when(delegate.findDeviceProfileById(device.deviceId())).thenReturn(Optional.of(device), Optional.empty());
+        repository.findDeviceProfiles(userAgent);
+
+        repository.deleteDeviceProfileById(device.deviceId());
+
+        assertTrue(repository.findDeviceProfileById(device.deviceId()).isEmpty());
+        verify(delegate, times(1)).deleteDeviceProfileById(device.deviceId());
+    }
+
+    @Test
+    void importDeviceProfiles_shouldEmptyCaches() {
+        when(delegate.findDeviceProfiles(userAgent)).thenReturn(List.of(device));
+        repository.findDeviceProfiles(userAgent);
+        var devices = List.of(device.withHitCount(42L)).iterator();
+        when(delegate.importDeviceProfiles(devices)).thenReturn(1L);
+
+        assertEquals(1L, repository.importDeviceProfiles(devices));
+
+        assertNull(repository.devicesById().getIfPresent(device.deviceId()));
+    }
+
+    @Test
+    void matchDeviceProfile_shouldAlwaysCallDelegateAndRefreshCache() {
+        when(delegate.matchDeviceProfile(eq(userAgent), anyLong(), any()))
+            .thenReturn(new DeviceProfileMatch(device.withHitCount(6L), false))
+            .thenReturn(new DeviceProfileMatch(device.withHitCount(7L), false));
+
+        repository.matchDeviceProfile(userAgent, 1L, () -> "unused");
+        repository.matchDeviceProfile(userAgent, 1L, () -> "unused");
+
+        assertEquals(7L, repository.findDeviceProfileById(device.deviceId()).orElseThrow().hitCount());
+        verify(delegate, times(2)).matchDeviceProfile(eq(userAgent), anyLong(), any());
+        verify(delegate, never()).findDeviceProfileById(any());
+    }
+
+    @Test
+    void matchDeviceProfile_whenDeletedDuringMatch_shouldNotCacheDeletedDevice() {
+        when(delegate.matchDeviceProfile(eq(userAgent), anyLong(), any())).thenAnswer(invocation -> {
+            repository.deleteDeviceProfileById(device.deviceId());
+            return new DeviceProfileMatch(device, false);
+        });
+
+        repository.matchDeviceProfile(userAgent, 1L, () -> "unused");
+
+        assertNull(repository.devicesById().getIfPresent(device.deviceId()));
+    }
+
+    @Test
+    void matchDeviceProfiles_shouldCacheEveryMatchedDevice() {
+        when(delegate.matchDeviceProfiles(eq(Map.of(userAgent, 3L)), any()))
+            .thenReturn(Map.of(userAgent, new DeviceProfileMatch(device.withHitCount(8L), false)));
+
+        repository.matchDeviceProfiles(Map.of(userAgent, 3L), ua -> "unused");
+
+        assertEquals(8L, repository.findDeviceProfileById(device.deviceId()).orElseThrow().hitCount());
+        verify(delegate, never()).findDeviceProfileById(any());
+    }
+
+    @Test
+    void matchDeviceProfiles_whenImportedDuringMatch_shouldNotCacheStaleDevices() {
+        var devices = List.of(device.withHitCount(42L)).iterator();
+        when(delegate.matchDeviceProfiles(eq(Map.of(userAgent, 3L)), any())).thenAnswer(invocation -> {
+            repository.importDeviceProfiles(devices);
+            return Map.of(userAgent, new DeviceProfileMatch(device.withHitCount(8L), false));
+        });
+
+        repository.matchDeviceProfiles(Map.of(userAgent, 3L), ua -> "unused");
+
+        assertNull(repository.devicesById().getIfPresent(device.deviceId()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.experian.devicematcher.repository;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+import com.experian.devicematcher.db.vendor.aerospike.AerospikeErrorCodes;
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.UserAgent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("unit")
+class MeteredDeviceProfileRepositoryTest {
+    private final UserAgent windows = new UserAgent("windows", "10", "chrome", "116.0.5845");
+    private final UserAgent android = new UserAgent("android", "13", "chrome mobile", "116.0.5845");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DeviceProfileRepository delegate = mock(DeviceProfileRepository.class);
+    private final MeteredDeviceProfileRepository repository = new MeteredDeviceProfileRepository(delegate, registry, AerospikeErrorCodes::of);
+
+    @Test
+    void matchDeviceProfile_shouldTimeCallAndCountOutcome() {
+        when(delegate.matchDeviceProfile(eq(windows), anyLong(), any())).thenReturn(new DeviceProfileMatch(new DeviceProfile("windows-1", 1L, windows), true));
+
+        repository.matchDeviceProfile(windows, 1L, () -> "windows-1");
+
+        assertEquals(1, registry.get(MeteredDeviceProfileRepository.TIMER).tags("operation", "matchDeviceProfile", "outcome", "success").timer().count());
+        assertEquals(1.0, registry.get(MeteredDeviceProfileRepository.MATCHES).tag("outcome", "created").counter().count());
+        assertEquals(0.0, registry.get(MeteredDeviceProfileRepository.MATCHES).tag("outcome", "existing").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void matchDeviceProfiles_shouldCountEveryOutcome() {
+        var matches = new LinkedHashMap<UserAgent, DeviceProfileMatch>();
+        matches.put(windows, new DeviceProfileMatch(new DeviceProfile("windows-1", 3L, windows), false));
+        matches.put(android, new DeviceProfileMatch(new DeviceProfile("android-1", 1L, android), true));
+        when(delegate.matchDeviceProfiles(any(Map.class), any(Function.class))).thenReturn(matches);
+
+        assertSame(matches, repository.matchDeviceProfiles(Map.of(windows, 3L, android, 1L), userAgent -> "id"));
+
+        assertEquals(1.0, registry.get(MeteredDeviceProfileRepository.MATCHES).tag("outcome", "created").counter().count());
+        assertEquals(1.0, registry.get(MeteredDeviceProfileRepository.MATCHES).tag("outcome", "existing").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void matchDeviceProfile_whenAerospikeFails_shouldTagResultCodeAndNotCountMatch() {
+        when(delegate.matchDeviceProfile(eq(windows), anyLong(), any(Supplier.class))).thenThrow(new AerospikeException(ResultCode.TIMEOUT, "timeout"));
+
+        assertThrows(AerospikeException.class, () -> repository.matchDeviceProfile(windows, 1L, () -> "windows-1"));
+
+        var error = registry.get(MeteredDeviceProfileRepository.TIMER)
+            .tags("operation", "matchDeviceProfile", "outcome", "error", "code", String.valueOf(ResultCode.TIMEOUT))
+            .timer();
+        assertEquals(1, error.count());
+        assertEquals(0.0, registry.get(MeteredDeviceProfileRepository.MATCHES).tag("outcome", "created").counter().count());
+    }
+
+    @Test
+    void incrementHitCount_whenOtherFailure_shouldTagNoCode() {
+        when(delegate.incrementHitCount("missing")).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> repository.incrementHitCount("missing"));
+
+        var error = registry.get(MeteredDeviceProfileRepository.TIMER)
+            .tags("operation", "incrementHitCount", "exception", "IllegalStateException", "code", "none")
+            .timer();
+        assertEquals(1, error.count());
+    }
+}
@@ -0,0 +1,119 @@
+package com.experian.devicematcher.service;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileIdGenerator;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.UserAgent;
+import com.experian.devicematcher.exceptions.DeviceProfileDeleteException;
+import com.experian.devicematcher.exceptions.DeviceProfileException;
+import com.experian.devicematcher.exceptions.DeviceProfileMatchException;
+import com.experian.devicematcher.parser.UserAgentParser;
+import com.experian.devicematcher.repository.AsyncDeviceProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("unit")
+class DeviceProfileAsyncServiceImplTest {
+    @Mock
+    private UserAgentParser userAgentParser;
+
+    @Mock
+    private AsyncDeviceProfileRepository repository;
+
+    @Mock
+    private DeviceProfileIdGenerator deviceProfileIdGenerator;
+
+    @InjectMocks
+    private DeviceProfileAsyncServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void matchDevice_WhenValidUserAgent_NewDevice_ThenCompleteWithDevice() throws Exception {
+        // Arrange
+        String ua = "Mozilla/5.0 (X11; Linux x86_64; rv:102.0) Gecko/20100101 Firefox/102.0";
+        var userAgent = new UserAgent("linux", "0.0.0", "firefox", "102.0");
+        when(userAgentParser.parse(ua)).thenReturn(userAgent);
+        when(deviceProfileIdGenerator.newId(userAgent)).thenReturn("linux-1");
+        when(repository.matchDeviceProfile(eq(userAgent), any())).thenAnswer(invocation -> {
+            Supplier<String> idSupplier = invocation.getArgument(1);
+            return CompletableFuture.completedFuture(new DeviceProfileMatch(new DeviceProfile(idSupplier.get(), 1L, userAgent), true));
+        });
+
+        // Act
+        var device = service.matchDevice(ua).get();
+
+        // Assert
+        assertEquals("linux-1", device.deviceId());
+        assertEquals(1L, device.hitCount());
+    }
+
+    @Test
+    void matchDevice_WhenBlankUserAgent_ThenFailWithMatchException() {
+        var future = service.matchDevice(" ");
+
+        var ex = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(DeviceProfileMatchException.class, ex.getCause());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void matchDevice_WhenRepositoryFails_ThenFailWithMatchException() throws Exception {
+        String ua = "Mozilla/5.0 (X11; Linux x86_64; rv:102.0) Gecko/20100101 Firefox/102.0";
+        var userAgent = new UserAgent("linux", "0.0.0", "firefox", "102.0");
+        when(userAgentParser.parse(ua)).thenReturn(userAgent);
+        when(repository.matchDeviceProfile(eq(userAgent), any()))
+            .thenReturn(CompletableFuture.failedFuture(new AerospikeException(ResultCode.TIMEOUT)));
+
+        var ex = assertThrows(ExecutionException.class, () -> service.matchDevice(ua).get());
+
+        assertInstanceOf(DeviceProfileMatchException.class, ex.getCause());
+        assertInstanceOf(AerospikeException.class, ex.getCause().getCause());
+    }
+
+    @Test
+    void getDeviceById_WhenNotFound_ThenCompleteEmpty() throws Exception {
+        when(repository.findDeviceProfileById("missing")).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        assertTrue(service.getDeviceById("missing").get().isEmpty());
+    }
+
+    @Test
+    void getDevicesByOS_ShouldLowerCaseOSName() throws Exception {
+        when(repository.findDeviceProfilesByOSName("windows")).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        assertTrue(service.getDevicesByOS("Windows").get().isEmpty());
+        verify(repository, times(1)).findDeviceProfilesByOSName("windows");
+    }
+
+    @Test
+    void getDevicesByOS_WhenNullOSName_ThenFailWithDeviceProfileException() {
+        var ex = assertThrows(ExecutionException.class, () -> service.getDevicesByOS(null).get());
+        assertInstanceOf(DeviceProfileException.class, ex.getCause());
+    }
+
+    @Test
+    void deleteDeviceById_WhenBlankId_ThenFailWithDeleteException() {
+        var ex = assertThrows(ExecutionException.class, () -> service.deleteDeviceById("").get());
+        assertInstanceOf(DeviceProfileDeleteException.class, ex.getCause());
+        verifyNoInteractions(repository);
+    }
+}
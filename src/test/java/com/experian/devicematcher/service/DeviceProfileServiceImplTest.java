@@ -2,9 +2,16 @@ package com.experian.devicematcher.service;
 
 import com.experian.devicematcher.domain.DeviceProfileIdGenerator;
 import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileGroupBy;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.DeviceProfilePage;
+import com.experian.devicematcher.domain.DeviceProfileQuery;
+import com.experian.devicematcher.domain.DeviceProfileStats;
+import com.experian.devicematcher.domain.SemVersion;
 import com.experian.devicematcher.domain.UserAgent;
 import com.experian.devicematcher.exceptions.DeviceProfileException;
 import com.experian.devicematcher.exceptions.DeviceProfileMatchException;
+import com.experian.devicematcher.exceptions.DeviceProfileQueryException;
 import com.experian.devicematcher.parser.UserAgentParser;
 import com.experian.devicematcher.repository.DeviceProfileRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,12 +22,18 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @Tag("unit")
@@ -104,7 +117,7 @@ class DeviceProfileServiceImplTest {
         assertThrows(DeviceProfileMatchException.class, () -> { service.matchDevice(userAgentString); });
         verify(userAgentParser, times(1)).parse(userAgentString);
         verify(repository, times(0)).persistDeviceProfile(any());
-        verify(repository, times(0)).persistDeviceProfile(any());
+        verify(repository, times(0)).matchDeviceProfile(any(), anyLong(), any());
         verify(deviceProfileIdGenerator, times(0)).newId(any(UserAgent.class));
     }
 
@@ -121,8 +134,10 @@ class DeviceProfileServiceImplTest {
         var deviceId = osName + "-" + UUID.randomUUID();
         var userAgent = new UserAgent(osName, osVersion, browserName, browserVersion);
         when(userAgentParser.parse(ua)).thenReturn(userAgent);
-        when(repository.findDeviceProfiles(userAgent)).thenReturn(List.of());
-        when(repository.incrementHitCount(deviceId)).thenReturn(initialHitCount + 1L);
+        when(repository.matchDeviceProfile(eq(userAgent), eq(1L), any())).thenAnswer(invocation -> {
+            Supplier<String> idSupplier = invocation.getArgument(2);
+            return new DeviceProfileMatch(new DeviceProfile(idSupplier.get(), initialHitCount + 1L, userAgent), true);
+        });
         when(deviceProfileIdGenerator.newId(userAgent)).thenReturn(deviceId);
 
         // Act
@@ -137,9 +152,7 @@ class DeviceProfileServiceImplTest {
         assertEquals(browserVersion, device.userAgent().browserVersion().toString(), "Browser Version should match");
 
         verify(userAgentParser, times(1)).parse(ua);
-        verify(repository, times(1)).findDeviceProfiles(userAgent);
-        verify(repository, times(1)).persistDeviceProfile(any(DeviceProfile.class));
-        verify(repository, times(1)).incrementHitCount(deviceId);
+        verify(repository, times(1)).matchDeviceProfile(eq(userAgent), eq(1L), any());
         verify(deviceProfileIdGenerator, times(1)).newId(userAgent);
         verifyNoMoreInteractions(repository);
         verifyNoMoreInteractions(userAgentParser);
@@ -160,8 +173,8 @@ class DeviceProfileServiceImplTest {
         var userAgent = new UserAgent(osName.toLowerCase(), osVersion, browserName.toLowerCase(), browserVersion);
         var deviceProfile = new DeviceProfile(deviceId, initialHitCount, userAgent);
         when(userAgentParser.parse(ua)).thenReturn(userAgent);
-        when(repository.findDeviceProfiles(userAgent)).thenReturn(List.of(deviceProfile));
-        when(repository.incrementHitCount(deviceId)).thenReturn(initialHitCount + 1L);
+        when(repository.matchDeviceProfile(eq(userAgent), eq(1L), any()))
+            .thenReturn(new DeviceProfileMatch(deviceProfile.withHitCount(initialHitCount + 1L), false));
         when(deviceProfileIdGenerator.newId(userAgent)).thenReturn(deviceId);
 
         // Act
@@ -177,14 +190,81 @@ class DeviceProfileServiceImplTest {
 
         verify(userAgentParser, times(1)).parse(ua);
         verify(repository, times(0)).persistDeviceProfile(any(DeviceProfile.class));
-        verify(repository, times(1)).incrementHitCount(deviceId);
-        verify(repository, times(1)).findDeviceProfiles(any(UserAgent.class));
+        verify(repository, times(1)).matchDeviceProfile(any(UserAgent.class), eq(1L), any());
         verify(deviceProfileIdGenerator, times(0)).newId(any(UserAgent.class));
         verifyNoMoreInteractions(repository);
         verifyNoMoreInteractions(userAgentParser);
         verifyNoMoreInteractions(deviceProfileIdGenerator);
     }
 
+    @Test
+    void matchDevices_WhenEmptyBatch_ThenReturnEmptyList() throws Exception {
+        // Act
+        var devices = service.matchDevices(List.of());
+
+        // Assert
+        assertTrue(devices.isEmpty());
+        verifyNoInteractions(repository);
+        verifyNoInteractions(userAgentParser);
+    }
+
+    @Test
+    void matchDevices_WhenBlankUserAgent_ThenThrowsException() {
+        // Act & Assert
+        assertThrows(DeviceProfileMatchException.class, () -> { service.matchDevices(List.of("Mozilla/5.0", " ")); });
+        verify(repository, times(0)).matchDeviceProfiles(any(), any());
+    }
+
+    @Test
+    void matchDevices_WhenDuplicatedUserAgents_ThenParseOnce_AggregateHits_And_KeepInputOrder() throws Exception {
+        // Arrange
+        String chrome = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.5845.110 Safari/537.36";
+        String safari = "Mozilla/5.0 (iPhone; CPU iPhone OS 16_0 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/16.0 Mobile/15E148 Safari/604.1";
+        var chromeUserAgent = new UserAgent("windows", "10", "chrome", "116.0.5845");
+        var safariUserAgent = new UserAgent("ios", "16.0", "mobile safari", "16.0");
+        var chromeDevice = new DeviceProfile("windows-1", 7L, chromeUserAgent);
+        var safariDevice = new DeviceProfile("ios-1", 1L, safariUserAgent);
+
+        when(userAgentParser.parse(chrome)).thenReturn(chromeUserAgent);
+        when(userAgentParser.parse(safari)).thenReturn(safariUserAgent);
+        when(repository.matchDeviceProfiles(eq(Map.of(chromeUserAgent, 2L, safariUserAgent, 1L)), any())).thenReturn(Map.of(
+            chromeUserAgent, new DeviceProfileMatch(chromeDevice, false),
+            safariUserAgent, new DeviceProfileMatch(safariDevice, true)
+        ));
+
+        // Act
+        var devices = service.matchDevices(List.of(chrome, safari, chrome));
+
+        // Assert
+        assertEquals(List.of(chromeDevice, safariDevice, chromeDevice), devices);
+        verify(userAgentParser, times(1)).parse(chrome);
+        verify(userAgentParser, times(1)).parse(safari);
+        verify(repository, times(1)).matchDeviceProfiles(any(), any());
+        verifyNoMoreInteractions(repository);
+        verifyNoMoreInteractions(userAgentParser);
+    }
+
+    @Test
+    void matchDevices_ShouldGenerateIdsWithDeviceProfileIdGenerator() throws Exception {
+        // Arrange
+        String ua = "Mozilla/5.0 (X11; Linux x86_64; rv:102.0) Gecko/20100101 Firefox/102.0";
+        var userAgent = new UserAgent("linux", "0.0.0", "firefox", "102.0");
+        when(userAgentParser.parse(ua)).thenReturn(userAgent);
+        when(deviceProfileIdGenerator.newId(userAgent)).thenReturn("linux-1");
+        when(repository.matchDeviceProfiles(any(), any())).thenAnswer(invocation -> {
+            Function<UserAgent, String> idGenerator = invocation.getArgument(1);
+            return Map.of(userAgent, new DeviceProfileMatch(new DeviceProfile(idGenerator.apply(userAgent), 1L, userAgent), true));
+        });
+
+        // Act
+        var devices = service.matchDevices(List.of(ua));
+
+        // Assert
+        assertEquals(1, devices.size());
+        assertEquals("linux-1", devices.get(0).deviceId());
+        verify(deviceProfileIdGenerator, times(1)).newId(userAgent);
+    }
+
     @Test
     void getDevicesByOS_WhenNullOSName_ShouldThrowException() {
         String osName = null;
@@ -234,6 +314,87 @@ class DeviceProfileServiceImplTest {
         verifyNoMoreInteractions(repository);
     }
 
+    @Test
+    void getDevicesByOSPage_WhenInvalidPageSize_ShouldThrowException() {
+        assertThrows(DeviceProfileException.class, () -> { service.getDevicesByOS("windows", 0, null); });
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getDevicesByOSPage_WhenBlankCursor_ShouldStartFromFirstPage() throws Exception {
+        var device = new DeviceProfile("deviceId", 0L, new UserAgent("windows", "10", "chrome", "90"));
+        when(repository.findDeviceProfilesByOSName("windows", 10, null)).thenReturn(new DeviceProfilePage(List.of(device), "next"));
+
+        var page = service.getDevicesByOS("Windows", 10, " ");
+
+        assertEquals(List.of(device), page.devices());
+        assertEquals("next", page.nextCursor());
+        verify(repository, times(1)).findDeviceProfilesByOSName("windows", 10, null);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void getDevicesByOSPage_WhenInvalidCursor_ShouldThrowException() {
+        when(repository.findDeviceProfilesByOSName("windows", 10, "garbage")).thenThrow(new IllegalArgumentException("Invalid cursor"));
+        assertThrows(DeviceProfileQueryException.class, () -> { service.getDevicesByOS("windows", 10, "garbage"); });
+    }
+
+    @Test
+    void searchDevices_WhenValidQuery_ShouldReturnPage() throws Exception {
+        var query = new DeviceProfileQuery(null, "Chrome", null, null, SemVersion.parse("120"), null);
+        var device = new DeviceProfile("deviceId", 0L, new UserAgent("windows", "10", "chrome", "124.0.6367"));
+        when(repository.findDeviceProfiles(query, 10, null)).thenReturn(new DeviceProfilePage(List.of(device), null));
+
+        var page = service.searchDevices(query, 10, " ");
+
+        assertEquals(List.of(device), page.devices());
+        assertEquals("chrome", query.browserName());
+        verify(repository, times(1)).findDeviceProfiles(query, 10, null);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void searchDevices_WhenInvalidPageSize_ShouldThrowQueryException() {
+        var query = new DeviceProfileQuery("windows", null, null, null, null, null);
+        assertThrows(DeviceProfileQueryException.class, () -> { service.searchDevices(query, 0, null); });
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void searchDevices_WhenRepositoryFails_ShouldThrowException() {
+        var query = new DeviceProfileQuery("windows", null, null, null, null, null);
+        when(repository.findDeviceProfiles(query, 10, null)).thenThrow(new IllegalStateException("Aerospike unavailable"));
+
+        var ex = assertThrows(DeviceProfileException.class, () -> { service.searchDevices(query, 10, null); });
+        assertEquals(DeviceProfileException.class, ex.getClass());
+    }
+
+    @Test
+    void streamDevicesByOS_ShouldPassEveryDeviceToConsumer() throws Exception {
+        var userAgent = new UserAgent("linux", "0.0.0", "firefox", "102.0");
+        var devices = List.of(new DeviceProfile("linux-1", 1L, userAgent), new DeviceProfile("linux-2", 2L, userAgent));
+        doAnswer(invocation -> {
+            Consumer<DeviceProfile> consumer = invocation.getArgument(1);
+            devices.forEach(consumer);
+            return null;
+        }).when(repository).streamDeviceProfilesByOSName(eq("linux"), any());
+
+        var streamed = new ArrayList<DeviceProfile>();
+        service.streamDevicesByOS("Linux", streamed::add);
+
+        assertEquals(devices, streamed);
+    }
+
+    @Test
+    void getDeviceStats_ShouldLowercaseOSAndTreatBlankAsAllDevices() throws Exception {
+        var stats = new DeviceProfileStats(DeviceProfileGroupBy.BROWSER_NAME, "android", List.of(new DeviceProfileStats.Group("chrome", 2, 15)));
+        when(repository.aggregateDeviceProfiles(DeviceProfileGroupBy.BROWSER_NAME, "android")).thenReturn(stats);
+
+        assertEquals(stats, service.getDeviceStats(DeviceProfileGroupBy.BROWSER_NAME, "Android"));
+        service.getDeviceStats(DeviceProfileGroupBy.OS_NAME, " ");
+        verify(repository).aggregateDeviceProfiles(DeviceProfileGroupBy.OS_NAME, null);
+    }
+
     @Test
     void deleteDeviceById_WhenNullId_ShouldThrowException() {
         String deviceId = null;
@@ -0,0 +1,109 @@
+package com.experian.devicematcher.service;
+
+import com.experian.devicematcher.domain.DeviceProfile;
+import com.experian.devicematcher.domain.DeviceProfileMatch;
+import com.experian.devicematcher.domain.UserAgent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+class MatchSingleFlightTest {
+    private static final UserAgent USER_AGENT = new UserAgent("android", "14", "chrome mobile", "120.0.6099");
+
+    private final MatchSingleFlight singleFlight = new MatchSingleFlight();
+
+    @Test
+    void match_whenAlone_shouldMatchWithOneHit() {
+        var hits = new AtomicLong();
+
+        var match = singleFlight.match(USER_AGENT, (userAgent, n) -> {
+            hits.addAndGet(n);
+            return new DeviceProfileMatch(new DeviceProfile("android-1", n, userAgent), true);
+        });
+
+        assertEquals(1L, hits.get());
+        assertEquals(1L, match.device().hitCount());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void match_whenConcurrent_shouldCoalesceCallsAndCountEveryHit() throws Exception {
+        var callers = 32;
+        var calls = new AtomicInteger();
+        var hitCount = new AtomicLong();
+        var firstCallStarted = new CountDownLatch(1);
+        var releaseFirstCall = new CountDownLatch(1);
+        MatchSingleFlight.Matcher matcher = (userAgent, hits) -> {
+            if (calls.incrementAndGet() == 1) {
+                firstCallStarted.countDown();
+                await(releaseFirstCall);
+            }
+            var device = new DeviceProfile("android-1", hitCount.addAndGet(hits), userAgent);
+            return new DeviceProfileMatch(device, calls.get() == 1);
+        };
+
+        var executor = Executors.newFixedThreadPool(callers);
+        try {
+            var results = new ArrayList<Future<DeviceProfileMatch>>();
+            results.add(executor.submit(() -> singleFlight.match(USER_AGENT, matcher)));
+            assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                // names in another case are the same tuple
+                var userAgent = i % 2 == 0 ? USER_AGENT : new UserAgent("Android", "14", "Chrome Mobile", "120.0.6099");
+                results.add(executor.submit(() -> singleFlight.match(userAgent, matcher)));
+            }
+            // every late caller has joined the second flight before the first one completes
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (singleFlight.waitingHits(USER_AGENT) < callers - 1) {
+                assertTrue(System.nanoTime() < deadline, "Late callers did not join the second flight");
+                Thread.sleep(1);
+            }
+            releaseFirstCall.countDown();
+
+            var deviceIds = new ArrayList<String>();
+            for (var result : results) deviceIds.add(result.get(5, TimeUnit.SECONDS).device().deviceId());
+
+            assertEquals(List.of("android-1"), deviceIds.stream().distinct().toList());
+            assertEquals(2, calls.get());
+            assertEquals(callers, hitCount.get());
+            assertEquals(0, singleFlight.inFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void match_whenMatcherFails_shouldRethrowAndAcceptNextFlight() {
+        var failure = new IllegalStateException("down");
+
+        var thrown = assertThrows(IllegalStateException.class, () -> singleFlight.match(USER_AGENT, (userAgent, hits) -> {
+            throw failure;
+        }));
+        var match = singleFlight.match(USER_AGENT, (userAgent, hits) -> new DeviceProfileMatch(new DeviceProfile("android-1", hits, userAgent), true));
+
+        assertSame(failure, thrown);
+        assertEquals(1L, match.device().hitCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}